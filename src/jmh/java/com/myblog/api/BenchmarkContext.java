@@ -0,0 +1,63 @@
+package com.myblog.api;
+
+import com.myblog.MyblogApplication;
+import com.myblog.api.domain.Post;
+import com.myblog.api.repository.PostRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 벤치마크용 스프링 컨텍스트
+ * 웹 서버 없이 띄우고, 포크마다 독립된 in-memory H2 에 글을 채운다.
+ */
+public final class BenchmarkContext {
+
+    private static final int SEED_BATCH = 1_000;
+
+    private static final String CONTENT = "스프링 부트와 JPA 로 만든 블로그 글 본문입니다. "
+            .repeat(20);
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start() {
+        // 커맨드라인 인자는 application.yml 보다 우선한다
+        return new SpringApplicationBuilder(MyblogApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=warn");
+    }
+
+    /**
+     * 글을 posts 개 저장하고 id 를 저장 순서대로 돌려준다.
+     */
+    public static long[] seed(ConfigurableApplicationContext context, int posts) {
+        PostRepository postRepository = context.getBean(PostRepository.class);
+
+        long[] ids = new long[posts];
+        List<Post> batch = new ArrayList<>(SEED_BATCH);
+        int saved = 0;
+        for (int i = 1; i <= posts; i++) {
+            batch.add(Post.builder()
+                    .title("벤치마크 제목 " + i)
+                    .content(CONTENT + i)
+                    .build());
+
+            if (batch.size() == SEED_BATCH || i == posts) {
+                for (Post post : postRepository.saveAll(batch)) {
+                    ids[saved++] = post.getId();
+                }
+                batch.clear();
+            }
+        }
+        return ids;
+    }
+}
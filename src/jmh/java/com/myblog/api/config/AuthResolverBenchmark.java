@@ -0,0 +1,75 @@
+package com.myblog.api.config;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AuthResolver 토큰 검증
+ * cached : 같은 토큰 반복 (검증 캐시 적중)
+ * verify : 캐시를 끄고 매번 서명 검증
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthResolverBenchmark {
+
+    private static final String JWT_KEY = "+6XfrftkpXTDECSTKx+PDE+ajIf/Brei7V2h9y479ME=";
+
+    private AuthResolver cachingResolver;
+    private AuthResolver verifyingResolver;
+    private NativeWebRequest webRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AppConfig appConfig = new AppConfig();
+        appConfig.setJwtKey(JWT_KEY);
+        cachingResolver = new AuthResolver(null, appConfig, new SimpleMeterRegistry());
+
+        AppConfig noCache = new AppConfig();
+        noCache.setJwtKey(JWT_KEY);
+        noCache.setVerifiedTokenCacheSize(0);
+        verifyingResolver = new AuthResolver(null, noCache, new SimpleMeterRegistry());
+
+        String jws = Jwts.builder()
+                .setSubject("1")
+                .signWith(Keys.hmacShaKeyFor(appConfig.getJwtKey()))
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .compact();
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", jws);
+        webRequest = new ServletWebRequest(request);
+    }
+
+    @Benchmark
+    public Object cached() throws Exception {
+        return cachingResolver.resolveArgument(null, null, webRequest, null);
+    }
+
+    @Benchmark
+    public Object verify() throws Exception {
+        return verifyingResolver.resolveArgument(null, null, webRequest, null);
+    }
+}
@@ -0,0 +1,41 @@
+package com.myblog.api.crypto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로그인 비밀번호 확인 비용 (scrypt 파라미터 변경시 비교용)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScryptPasswordEncoderBenchmark {
+
+    private final ScryptPasswordEncoder encoder = new ScryptPasswordEncoder();
+
+    private String encrypted;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encrypted = encoder.encrypt("1234");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("1234", encrypted);
+    }
+}
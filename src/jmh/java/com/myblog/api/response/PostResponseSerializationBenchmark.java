@@ -0,0 +1,85 @@
+package com.myblog.api.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myblog.api.cache.PostJson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PostResponse JSON 직렬화
+ * contentLength : 본문 글자 수
+ * cached / cachedGzip : PostJson 에 미리 직렬화해 둔 바이트에 조회수만 붙여 쓰기
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostResponseSerializationBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int contentLength;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private PostResponse response;
+    private PostJson json;
+    private OutputStream out;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        response = PostResponse.builder()
+                .id(1L)
+                .title("벤치마크 제목")
+                .content("가".repeat(contentLength))
+                .build();
+        json = PostJson.of(1L, 0L, 0, 0, objectMapper.writeValueAsBytes(response), 1024);
+    }
+
+    @Setup(Level.Trial)
+    public void setUpOut(Blackhole blackhole) {
+        out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                blackhole.consume(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                blackhole.consume(b);
+            }
+        };
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public void cached() throws IOException {
+        json.write(out, 12_345, false);
+    }
+
+    @Benchmark
+    public void cachedGzip() throws IOException {
+        json.write(out, 12_345, json.hasGzip());
+    }
+}
@@ -0,0 +1,111 @@
+package com.myblog.api.service;
+
+import com.myblog.api.BenchmarkContext;
+import com.myblog.api.cache.PostResponseCache;
+import com.myblog.api.request.PostSearch;
+import com.myblog.api.response.PostResponse;
+import com.myblog.api.response.PostSummaryResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PostService 조회 경로
+ * posts : 미리 채워두는 글 개수 (./gradlew jmh -PbenchPosts=... 로 변경)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Data {
+
+        @Param({"1000", "10000"})
+        private int posts;
+
+        private ConfigurableApplicationContext context;
+        private PostService postService;
+        private PostResponseCache postResponseCache;
+        private long[] ids;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkContext.start();
+            postService = context.getBean(PostService.class);
+            postResponseCache = context.getBean(PostResponseCache.class);
+            ids = BenchmarkContext.seed(context, posts);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+
+        private long randomId() {
+            return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Page {
+
+        @Param({"5", "100", "2000"})
+        private int size;
+
+        private PostSearch firstPage;
+        private PostSearch cursorPage;
+
+        @Setup(Level.Trial)
+        public void setUp(Data data) {
+            firstPage = PostSearch.builder()
+                    .size(size)
+                    .build();
+            // 가운데 글부터 이어보기
+            cursorPage = PostSearch.builder()
+                    .size(size)
+                    .after(PostSearch.encodeCursor(data.ids[data.ids.length / 2]))
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public PostResponse get(Data data) {
+        return data.postService.get(data.randomId());
+    }
+
+    // 캐시를 비우고 조회 - DB 조회 + 캐시 적재 비용
+    @Benchmark
+    public PostResponse getUncached(Data data) {
+        long id = data.randomId();
+        data.postResponseCache.evict(id);
+        return data.postService.get(id);
+    }
+
+    @Benchmark
+    public List<PostSummaryResponse> getList(Data data, Page page) {
+        return data.postService.getList(page.firstPage);
+    }
+
+    @Benchmark
+    public List<PostSummaryResponse> getListByCursor(Data data, Page page) {
+        return data.postService.getList(page.cursorPage);
+    }
+}
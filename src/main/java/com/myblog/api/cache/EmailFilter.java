@@ -0,0 +1,123 @@
+package com.myblog.api.cache;
+
+import com.myblog.api.config.AppConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 가입된 이메일 Bloom filter - 회원가입에서 확실히 새로운 이메일은 조회 없이 바로 insert 하도록
+ * false 면 가입된 적 없는 이메일, true 면 가입되었을 수도 있는 이메일이다. (falsePositiveRate 비율로 틀린다)
+ * 기동 후 users 의 이메일로 채우고, 다 채우기 전에는 항상 true 를 돌려준다.
+ * 비트는 지우지 않으므로 탈퇴한 이메일은 다음 기동까지 true 로 남는다. (조회 한번이 더 나갈 뿐이다)
+ * 중복 가입은 결국 users.email unique 인덱스가 막는다.
+ */
+@Slf4j
+@Component
+public class EmailFilter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private volatile boolean ready;
+
+    public EmailFilter(JdbcTemplate jdbcTemplate, AppConfig appConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        AppConfig.EmailFilter config = appConfig.getEmailFilter();
+        long expected = Math.max(1, config.getExpectedInsertions());
+        double fpp = config.getFalsePositiveRate();
+
+        // m = -n ln p / (ln 2)^2, k = m / n ln 2
+        long words = Math.max(1, (long) Math.ceil(-expected * Math.log(fpp) / (Math.log(2) * Math.log(2)) / 64));
+        this.bits = new AtomicLongArray(Math.toIntExact(words));
+        this.bitCount = words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expected * Math.log(2)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread thread = new Thread(() -> {
+            try {
+                warm();
+            } catch (RuntimeException e) {
+                log.error("email filter warm-up failed. every signup checks the database", e);
+            }
+        }, "email-filter-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * users 의 이메일을 모두 넣는다. 넣는 도중에 가입한 이메일은 put 으로 들어오므로 빠지지 않는다.
+     */
+    public void warm() {
+        long[] count = new long[1];
+        jdbcTemplate.query("select email from users", (RowCallbackHandler) rs -> {
+            put(rs.getString(1));
+            count[0]++;
+        });
+        ready = true;
+        log.info("email filter warmed. emails={}, bits={}, hashes={}", count[0], bitCount, hashCount);
+    }
+
+    public boolean mightContain(String email) {
+        if (!ready || email == null) {
+            return true;
+        }
+
+        long hash = hash(email);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(String email) {
+        if (email == null) {
+            return;
+        }
+
+        long hash = hash(email);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    // FNV-1a 64
+    private static long hash(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
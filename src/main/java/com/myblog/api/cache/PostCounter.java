@@ -0,0 +1,97 @@
+package com.myblog.api.cache;
+
+import com.myblog.api.config.AppConfig;
+import com.myblog.api.repository.PostRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 전체 글 수 - 목록 요청마다 count(*) 를 하지 않도록 메모리에 들고 있는다.
+ * 작성/삭제는 커밋 직후에 더하고 빼며, reconcileInterval 마다 count(*) 로 다시 맞춘다.
+ * (repository 를 직접 쓰는 경로, 다른 인스턴스의 변경, reconcile 과 겹친 증감은 다음 reconcile 까지 어긋날 수 있다)
+ */
+@Slf4j
+@Component
+public class PostCounter {
+
+    private static final long UNKNOWN = -1;
+
+    private final PostRepository postRepository;
+    private final AppConfig.PostCount config;
+    private final AtomicLong total = new AtomicLong(UNKNOWN);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "post-count-reconcile");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PostCounter(PostRepository postRepository, AppConfig appConfig) {
+        this.postRepository = postRepository;
+        this.config = appConfig.getPostCount();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = config.getReconcileInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                log.warn("post count reconcile failed", e);
+            }
+        }, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 아직 한번도 세지 않았으면 여기서 count(*) 한다.
+     */
+    public long get() {
+        long value = total.get();
+        return value == UNKNOWN ? reconcile() : value;
+    }
+
+    /**
+     * 트랜잭션 안이면 커밋 직후에 반영한다. (롤백되면 반영하지 않음)
+     */
+    public void add(long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(delta);
+                }
+            });
+        } else {
+            apply(delta);
+        }
+    }
+
+    public long reconcile() {
+        long count = postRepository.count();
+        long previous = total.getAndSet(count);
+        if (previous != UNKNOWN && previous != count) {
+            log.info("post count reconciled. counted={}, count={}", previous, count);
+        }
+        return count;
+    }
+
+    // 아직 세지 않았으면 그대로 둔다 - 처음 get() 할 때 센다
+    private void apply(long delta) {
+        total.updateAndGet(value -> value == UNKNOWN ? UNKNOWN : Math.max(0, value + delta));
+    }
+}
@@ -0,0 +1,210 @@
+package com.myblog.api.cache;
+
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 미리 직렬화해 둔 글 단건 JSON (UTF-8)
+ * 조회수만 요청마다 달라지므로 {"id":..,"title":..,"content":..,"views": 까지를 prefix 로 들고, 숫자와 } 만 붙여서 쓴다.
+ * gzip 은 prefix 를 SYNC_FLUSH 로 압축해 둔 바이트에 숫자와 } 를 stored 블록(무압축)으로 이어 붙이고,
+ * CRC32 는 prefix 의 CRC 에서 이어서 계산한다. -> 요청마다 Jackson 도, 압축도 다시 하지 않는다.
+ */
+public final class PostJson {
+
+    private static final byte[] VIEWS_FIELD = "\"views\":".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int ENTRY_OVERHEAD = 96;
+    // 숫자(최대 19자리) + } + stored 블록 헤더 5 + gzip trailer 8
+    private static final int MAX_TAIL = 19 + 1 + 5 + 8;
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[MAX_TAIL]);
+    private static final int[] CRC_TABLE = crcTable();
+
+    @Getter
+    private final Long id;
+    @Getter
+    private final Long version;
+    // DB 에 반영된 조회수 - flush 때마다 withViews 로 바뀐다
+    @Getter
+    private final long views;
+    // 캐시에 올린 시점의 PostViewCounter epoch
+    @Getter
+    private final long viewEpoch;
+
+    private final byte[] prefix;
+    // gzip 헤더 + 끝나지 않은 deflate 스트림, gzip 을 만들지 않는 작은 글은 null
+    private final byte[] gzipPrefix;
+    private final int prefixCrc;
+
+    private PostJson(Long id, Long version, long views, long viewEpoch, byte[] prefix, byte[] gzipPrefix, int prefixCrc) {
+        this.id = id;
+        this.version = version;
+        this.views = views;
+        this.viewEpoch = viewEpoch;
+        this.prefix = prefix;
+        this.gzipPrefix = gzipPrefix;
+        this.prefixCrc = prefixCrc;
+    }
+
+    /**
+     * @param json        "views":N} 로 끝나는 직렬화 결과
+     * @param viewEpoch   PostViewCounter.loadedEpoch 값
+     * @param gzipMinSize 이 크기 이상인 글만 gzip 본을 만든다
+     */
+    public static PostJson of(Long id, Long version, long views, long viewEpoch, byte[] json, long gzipMinSize) {
+        int prefixLength = json.length - 1;
+        while (prefixLength > 0 && json[prefixLength - 1] >= '0' && json[prefixLength - 1] <= '9') {
+            prefixLength--;
+        }
+        if (json[json.length - 1] != '}' || !endsWith(json, prefixLength, VIEWS_FIELD)) {
+            throw new IllegalArgumentException("views must be the last field");
+        }
+
+        byte[] prefix = Arrays.copyOf(json, prefixLength);
+        if (prefix.length < gzipMinSize) {
+            return new PostJson(id, version, views, viewEpoch, prefix, null, 0);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(prefix);
+        return new PostJson(id, version, views, viewEpoch, prefix, deflate(prefix), (int) crc.getValue());
+    }
+
+    public PostJson withViews(long views) {
+        return new PostJson(id, version, views, viewEpoch, prefix, gzipPrefix, prefixCrc);
+    }
+
+    public boolean hasGzip() {
+        return gzipPrefix != null;
+    }
+
+    public long contentLength(long views, boolean gzip) {
+        int tail = digits(views) + 1;
+        return gzip ? gzipPrefix.length + 5 + tail + 8 : prefix.length + tail;
+    }
+
+    /**
+     * 조회수를 붙여서 바로 쓴다. gzip 이면 Content-Encoding: gzip 본문
+     */
+    public void write(OutputStream out, long views, boolean gzip) throws IOException {
+        byte[] scratch = SCRATCH.get();
+        if (!gzip) {
+            out.write(prefix);
+            out.write(scratch, 0, tail(scratch, 0, views));
+            return;
+        }
+
+        // 마지막 stored 블록 : BFINAL=1, BTYPE=00, LEN, NLEN (little endian)
+        int length = tail(scratch, 5, views);
+        scratch[0] = 1;
+        scratch[1] = (byte) length;
+        scratch[2] = (byte) (length >>> 8);
+        scratch[3] = (byte) ~length;
+        scratch[4] = (byte) (~length >>> 8);
+
+        int crc = crc(prefixCrc, scratch, 5, length);
+        int end = 5 + length;
+        end = putInt(scratch, end, crc);
+        end = putInt(scratch, end, prefix.length + length);
+
+        out.write(gzipPrefix);
+        out.write(scratch, 0, end);
+    }
+
+    /**
+     * 캐시 가중치 (바이트)
+     */
+    int weight() {
+        long bytes = ENTRY_OVERHEAD + prefix.length + (gzipPrefix == null ? 0 : gzipPrefix.length);
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    // 숫자와 } 를 from 부터 쓰고 길이를 돌려준다
+    private static int tail(byte[] buffer, int from, long views) {
+        int digits = digits(views);
+        long value = views;
+        for (int i = from + digits - 1; i >= from; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        buffer[from + digits] = '}';
+        return digits + 1;
+    }
+
+    private static int digits(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static int putInt(byte[] buffer, int at, int value) {
+        buffer[at] = (byte) value;
+        buffer[at + 1] = (byte) (value >>> 8);
+        buffer[at + 2] = (byte) (value >>> 16);
+        buffer[at + 3] = (byte) (value >>> 24);
+        return at + 4;
+    }
+
+    // SYNC_FLUSH 는 바이트 경계에서 끝나고 마지막 블록 표시가 없어서, 뒤에 stored 블록을 이어 붙일 수 있다
+    private static byte[] deflate(byte[] input) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + GZIP_HEADER.length);
+        out.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(input);
+            byte[] buffer = new byte[8192];
+            int written;
+            do {
+                written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                out.write(buffer, 0, written);
+            } while (written == buffer.length);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    // java.util.zip.CRC32 는 중간 값에서 이어서 계산할 수 없어서 직접 계산한다 (zlib crc32 와 같은 값)
+    private static int crc(int crc, byte[] buffer, int from, int length) {
+        int c = ~crc;
+        for (int i = from; i < from + length; i++) {
+            c = CRC_TABLE[(c ^ buffer[i]) & 0xff] ^ (c >>> 8);
+        }
+        return ~c;
+    }
+
+    private static int[] crcTable() {
+        int[] table = new int[256];
+        for (int n = 0; n < 256; n++) {
+            int c = n;
+            for (int k = 0; k < 8; k++) {
+                c = (c & 1) != 0 ? 0xedb88320 ^ (c >>> 1) : c >>> 1;
+            }
+            table[n] = c;
+        }
+        return table;
+    }
+
+    private static boolean endsWith(byte[] bytes, int end, byte[] suffix) {
+        if (end < suffix.length) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length; i++) {
+            if (bytes[end - suffix.length + i] != suffix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,89 @@
+package com.myblog.api.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.myblog.api.config.AppConfig;
+import com.myblog.api.response.PostResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * 글 단건 조회 응답을 직렬화한 바이트 캐시 (PostJson)
+ * 캐시에 없을 때만 PostResponse 를 만들어 Jackson 으로 한번 직렬화하고, 이후 조회는 바이트를 그대로 쓴다.
+ */
+@Component
+public class PostJsonCache {
+
+    private final Cache<Long, PostJson> cache;
+    private final ObjectMapper objectMapper;
+    private final long gzipMinSize;
+
+    public PostJsonCache(ObjectMapper objectMapper, AppConfig appConfig, MeterRegistry meterRegistry) {
+        AppConfig.PostJsonCache config = appConfig.getPostJsonCache();
+        this.objectMapper = objectMapper;
+        this.gzipMinSize = config.getGzipMinSize().toBytes();
+
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(config.getMaxSize().toBytes())
+                .weigher((Long id, PostJson json) -> json.weight())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "posts.json");
+    }
+
+    public PostJson get(Long id, Function<Long, PostResponse> loader) {
+        return cache.get(id, key -> serialize(loader.apply(key)));
+    }
+
+    public PostJson getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * 수정/삭제시 해당 글만 무효화 - PostResponseCache.evict 와 같이 커밋 직후에 한번 더 지운다.
+     */
+    public void evict(Long id) {
+        cache.invalidate(id);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * 캐시에 있을 때만 바꾼다 (조회수 반영) - update 가 null 을 돌려주면 지운다
+     */
+    public void computeIfPresent(Long id, UnaryOperator<PostJson> update) {
+        cache.asMap().computeIfPresent(id, (key, json) -> update.apply(json));
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    private PostJson serialize(PostResponse response) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            return PostJson.of(response.getId(), response.getVersion(), response.getViews(), response.getViewEpoch(),
+                    json, gzipMinSize);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.myblog.api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.myblog.api.config.AppConfig;
+import com.myblog.api.response.PostResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * 글 단건 조회(read-through) 캐시
+ * Caffeine 의 W-TinyLFU 로 자주 조회되는 글만 남기고, 항목 수 / 바이트 / TTL 로 크기를 제한한다.
+ */
+@Component
+public class PostResponseCache {
+
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final Cache<Long, PostResponse> cache;
+
+    public PostResponseCache(AppConfig appConfig, MeterRegistry meterRegistry) {
+        AppConfig.PostCache config = appConfig.getPostCache();
+
+        long maxBytes = config.getMaxSize().toBytes();
+        // 항목당 최소 가중치를 주면 maxEntries 개를 넘길 수 없다 -> 항목 수와 바이트 두 한도를 같이 지킨다
+        int minWeight = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxBytes / Math.max(1, config.getMaxEntries())));
+
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long id, PostResponse response) -> Math.max(minWeight, weigh(response)))
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "posts");
+    }
+
+    public PostResponse get(Long id, Function<Long, PostResponse> loader) {
+        return cache.get(id, loader);
+    }
+
+    public PostResponse getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * 수정/삭제시 해당 글만 무효화
+     * 트랜잭션 안이라면 커밋 직후에 한번 더 지워서, 커밋 전에 다시 캐시된 이전 값을 남기지 않는다.
+     */
+    public void evict(Long id) {
+        cache.invalidate(id);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * 캐시에 있을 때만 바꾼다 (조회수 반영) - update 가 null 을 돌려주면 지운다
+     */
+    public void computeIfPresent(Long id, UnaryOperator<PostResponse> update) {
+        cache.asMap().computeIfPresent(id, (key, response) -> update.apply(response));
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    // String 은 문자당 최대 2바이트로 계산
+    private static int weigh(PostResponse response) {
+        long chars = length(response.getTitle()) + length(response.getContent());
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD + chars * 2);
+    }
+
+    private static long length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,203 @@
+package com.myblog.api.cache;
+
+import com.myblog.api.config.AppConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 글 조회수 - 조회마다 post 행을 update 하지 않고 글마다 LongAdder 에 모은다.
+ * flushInterval 마다 "views = views + ?" 를 batchSize 개씩 JDBC 배치로 보내고, 종료할 때도 한번 보낸다.
+ * 한 주기 동안 조회가 없던 글의 카운터는 맵에서 뺀다. 빼는 사이에 들어온 조회는 조회한 쪽이 새 카운터로 옮긴다.
+ * 캐시 항목에는 DB 에서 읽은 시점의 epoch 를 찍는다. flush 는 시작과 끝에 epoch 를 하나씩 올리고(진행 중이면 홀수),
+ * flush 시작 전에 읽은 항목에만 보낸 조회수를 더한다. flush 와 겹쳐서 읽은 항목은 이미 반영됐을 수 있으므로 지운다.
+ */
+@Slf4j
+@Component
+public class PostViewCounter {
+
+    private static final String UPDATE_SQL = "update post set views = views + ? where id = ?";
+
+    // flush 와 겹쳐서 읽은 캐시 항목 - 다음 flush 때 조회수를 더하지 않고 지운다
+    private static final long UNSTABLE_EPOCH = Long.MAX_VALUE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostResponseCache postResponseCache;
+    private final PostJsonCache postJsonCache;
+    private final AppConfig.PostViews config;
+    private final Map<Long, Cell> cells = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+
+    private final Counter flushed;
+    private final Timer flushTime;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "post-view-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PostViewCounter(JdbcTemplate jdbcTemplate,
+                           PostResponseCache postResponseCache,
+                           PostJsonCache postJsonCache,
+                           AppConfig appConfig,
+                           MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postResponseCache = postResponseCache;
+        this.postJsonCache = postJsonCache;
+        this.config = appConfig.getPostViews();
+
+        Gauge.builder("posts.views.pending", cells, Map::size)
+                .description("flush 를 기다리는 조회수가 있는 글 수")
+                .register(meterRegistry);
+        this.flushed = Counter.builder("posts.views.flushed")
+                .description("DB 에 반영한 조회수")
+                .register(meterRegistry);
+        this.flushTime = Timer.builder("posts.views.flush")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = config.getFlushInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.warn("post view flush failed", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 진행 중인 flush 를 기다린 뒤 남은 조회수를 한번 더 보낸다.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(config.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    public void increment(Long postId) {
+        add(postId, 1);
+    }
+
+    /**
+     * 아직 DB 에 반영하지 않은 조회수
+     */
+    public long pending(Long postId) {
+        Cell cell = cells.get(postId);
+        return cell == null ? 0 : cell.views.sum();
+    }
+
+    /**
+     * 캐시에 올릴 글을 DB 에서 읽기 전에 받아 두고, 읽은 뒤 loadedEpoch 에 넘긴다.
+     */
+    public long epoch() {
+        return epoch.get();
+    }
+
+    /**
+     * @param before 읽기 전에 받은 epoch()
+     * @return 캐시 항목에 찍을 epoch - 읽는 동안 flush 가 진행 중이었으면 UNSTABLE_EPOCH
+     */
+    public long loadedEpoch(long before) {
+        return (before & 1) == 0 && epoch.get() == before ? before : UNSTABLE_EPOCH;
+    }
+
+    /**
+     * @return DB 에 반영한 글 수
+     */
+    public synchronized int flush() {
+        long startedAt = System.nanoTime();
+        long flushEpoch = epoch.incrementAndGet();
+        try {
+            return flush(flushEpoch);
+        } finally {
+            epoch.incrementAndGet();
+            flushTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private int flush(long flushEpoch) {
+        List<Object[]> deltas = new ArrayList<>();
+        for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+            long views = entry.getValue().views.sumThenReset();
+            if (views > 0) {
+                deltas.add(new Object[]{views, entry.getKey()});
+            } else {
+                retire(entry.getKey(), entry.getValue());
+            }
+        }
+
+        int batchSize = config.getBatchSize();
+        for (int from = 0; from < deltas.size(); from += batchSize) {
+            List<Object[]> chunk = deltas.subList(from, Math.min(deltas.size(), from + batchSize));
+            try {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, chunk);
+            } catch (RuntimeException e) {
+                // 보내지 못한 조회수는 되돌려서 다음 주기에 다시 보낸다
+                for (Object[] delta : deltas.subList(from, deltas.size())) {
+                    add((Long) delta[1], (Long) delta[0]);
+                }
+                throw e;
+            }
+
+            // update 가 커밋된 뒤에 읽은 항목은 이미 이 조회수를 포함한다 -> flush 시작 전에 읽은 항목에만 더한다
+            for (Object[] delta : chunk) {
+                long views = (Long) delta[0];
+                postResponseCache.computeIfPresent((Long) delta[1], response -> response.getViewEpoch() < flushEpoch
+                        ? response.withViews(response.getViews() + views) : null);
+                postJsonCache.computeIfPresent((Long) delta[1], json -> json.getViewEpoch() < flushEpoch
+                        ? json.withViews(json.getViews() + views) : null);
+                flushed.increment(views);
+            }
+        }
+        return deltas.size();
+    }
+
+    private void add(Long postId, long views) {
+        Cell cell = cells.computeIfAbsent(postId, id -> new Cell());
+        cell.views.add(views);
+        if (cell.retired) {
+            // flush 가 이 카운터를 맵에서 뺀 뒤에 더했다 -> 아직 남아 있으면 새 카운터로 옮긴다
+            long late = cell.views.sumThenReset();
+            if (late > 0) {
+                add(postId, late);
+            }
+        }
+    }
+
+    private void retire(Long postId, Cell cell) {
+        if (!cells.remove(postId, cell)) {
+            return;
+        }
+        cell.retired = true;
+        long late = cell.views.sumThenReset();
+        if (late > 0) {
+            add(postId, late);
+        }
+    }
+
+    private static class Cell {
+        private final LongAdder views = new LongAdder();
+        private volatile boolean retired;
+    }
+}
@@ -0,0 +1,82 @@
+package com.myblog.api.compression;
+
+import com.myblog.api.config.AppConfig;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PostContent.body 압축 저장
+ * 저장 형식 : MARKER + 코덱 id + base64(압축 바이트)
+ * MARKER 로 시작하지 않는 값은 압축 전(기존) 데이터로 보고 그대로 읽는다.
+ * 컬럼은 기존 CLOB 그대로라서 기존 행과 새 행이 섞여 있어도 된다.
+ */
+@Component
+@Converter
+public class CompressedContentConverter implements AttributeConverter<String, String> {
+
+    public static final char MARKER = '\u0001';
+
+    private final AppConfig.ContentCompression config;
+    private final Map<Character, ContentCodec> codecs = new HashMap<>();
+    private final ContentCodec writeCodec;
+
+    public CompressedContentConverter(AppConfig appConfig, List<ContentCodec> codecs) {
+        this.config = appConfig.getContentCompression();
+        for (ContentCodec codec : codecs) {
+            this.codecs.put(codec.id(), codec);
+        }
+        this.writeCodec = codecs.stream()
+                .filter(codec -> codec.name().equals(config.getCodec()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("알 수 없는 압축 코덱입니다. codec=" + config.getCodec()));
+    }
+
+    @Override
+    public String convertToDatabaseColumn(String content) {
+        if (content == null || content.isEmpty()) {
+            return content;
+        }
+
+        // 원문이 MARKER 로 시작하면 압축된 값과 구분할 수 없으므로 크기와 상관없이 감싼다
+        boolean mustWrap = content.charAt(0) == MARKER;
+        if (!config.isEnabled() && !mustWrap) {
+            return content;
+        }
+
+        byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+        if (raw.length < config.getThreshold().toBytes() && !mustWrap) {
+            return content;
+        }
+
+        String encoded = MARKER + String.valueOf(writeCodec.id())
+                + Base64.getEncoder().encodeToString(writeCodec.compress(raw));
+
+        // 압축해도 줄지 않으면 원문 유지
+        return encoded.length() < content.length() || mustWrap ? encoded : content;
+    }
+
+    @Override
+    public String convertToEntityAttribute(String stored) {
+        if (!isCompressed(stored)) {
+            return stored;
+        }
+
+        ContentCodec codec = codecs.get(stored.charAt(1));
+        if (codec == null) {
+            throw new IllegalStateException("알 수 없는 압축 코덱입니다. id=" + stored.charAt(1));
+        }
+        byte[] compressed = Base64.getDecoder().decode(stored.substring(2));
+        return new String(codec.decompress(compressed), StandardCharsets.UTF_8);
+    }
+
+    public static boolean isCompressed(String stored) {
+        return stored != null && stored.length() >= 2 && stored.charAt(0) == MARKER;
+    }
+}
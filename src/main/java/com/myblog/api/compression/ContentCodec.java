@@ -0,0 +1,17 @@
+package com.myblog.api.compression;
+
+/**
+ * 본문 압축 코덱
+ * id 는 저장된 값 앞에 기록되므로 한번 정하면 바꾸지 않는다. (새 코덱은 새 id 로 추가)
+ */
+public interface ContentCodec {
+
+    char id();
+
+    // myblog.content-compression.codec 에 쓰는 이름
+    String name();
+
+    byte[] compress(byte[] data);
+
+    byte[] decompress(byte[] data);
+}
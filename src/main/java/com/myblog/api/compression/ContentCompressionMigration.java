@@ -0,0 +1,130 @@
+package com.myblog.api.compression;
+
+import com.myblog.api.config.AppConfig;
+import com.myblog.api.domain.Post;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 압축 전에 저장된 글을 chunk 단위로 다시 저장하는 백그라운드 마이그레이션
+ * 본문이 그대로 남아 있거나 excerpt 컬럼이 비어 있는 행만 고친다.
+ * 엔티티를 거치지 않고 JDBC 로 갱신하므로 version(ETag) 과 캐시는 그대로이다. (읽히는 값은 같다)
+ * 읽은 뒤 수정된 행은 version 조건에 걸려 건너뛴다. (post_content, post 각각의 version)
+ */
+@Slf4j
+@Component
+public class ContentCompressionMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CompressedContentConverter converter;
+    private final AppConfig.ContentCompression config;
+
+    public ContentCompressionMigration(JdbcTemplate jdbcTemplate,
+                                       CompressedContentConverter converter,
+                                       AppConfig appConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.converter = converter;
+        this.config = appConfig.getContentCompression();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!config.isMigrateOnStartup()) {
+            return;
+        }
+
+        Thread thread = new Thread(() -> {
+            try {
+                migrate();
+            } catch (RuntimeException e) {
+                log.error("content compression migration failed", e);
+            }
+        }, "content-compression-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return 다시 저장한 행 수 (post_content, post 합계)
+     */
+    public int migrate() {
+        int batchSize = config.getMigrationBatchSize();
+        long lastId = 0;
+        int migrated = 0;
+
+        while (true) {
+            List<Row> rows = jdbcTemplate.query(
+                    "select p.id, p.version, p.excerpt, c.id as content_id, c.version as content_version, c.body"
+                            + " from post p join post_content c on c.id = p.content_id"
+                            + " where p.id > ? order by p.id limit ?",
+                    (rs, rowNum) -> new Row(
+                            rs.getLong("id"), rs.getLong("version"), rs.getString("excerpt"),
+                            rs.getLong("content_id"), rs.getLong("content_version"), rs.getString("body")),
+                    lastId, batchSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            lastId = rows.get(rows.size() - 1).id;
+
+            List<Object[]> bodies = new ArrayList<>();
+            List<Object[]> excerpts = new ArrayList<>();
+            for (Row row : rows) {
+                if (!CompressedContentConverter.isCompressed(row.body)) {
+                    String body = converter.convertToDatabaseColumn(row.body);
+                    if (!Objects.equals(body, row.body)) {
+                        bodies.add(new Object[]{body, row.contentId, row.contentVersion});
+                    }
+                }
+                if (row.excerpt == null) {
+                    String excerpt = Post.excerpt(converter.convertToEntityAttribute(row.body));
+                    if (excerpt != null) {
+                        excerpts.add(new Object[]{excerpt, row.id, row.version});
+                    }
+                }
+            }
+
+            migrated += update("update post_content set body = ? where id = ? and version = ?", bodies);
+            migrated += update("update post set excerpt = ? where id = ? and version = ?", excerpts);
+        }
+
+        log.info("content compression migration finished. migrated={}", migrated);
+        return migrated;
+    }
+
+    private int update(String sql, List<Object[]> args) {
+        if (args.isEmpty()) {
+            return 0;
+        }
+        int updated = 0;
+        for (int count : jdbcTemplate.batchUpdate(sql, args)) {
+            // 드라이버가 배치 건수를 모르면 SUCCESS_NO_INFO(-2)
+            updated += count == 0 ? 0 : 1;
+        }
+        return updated;
+    }
+
+    private static class Row {
+        private final long id;
+        private final long version;
+        private final String excerpt;
+        private final long contentId;
+        private final long contentVersion;
+        private final String body;
+
+        private Row(long id, long version, String excerpt, long contentId, long contentVersion, String body) {
+            this.id = id;
+            this.version = version;
+            this.excerpt = excerpt;
+            this.contentId = contentId;
+            this.contentVersion = contentVersion;
+            this.body = body;
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.myblog.api.config;
 
+import com.myblog.api.domain.Session;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
 
 @Data
 @ConfigurationProperties(prefix = "myblog")
@@ -11,6 +16,39 @@ public class AppConfig {
 
     private byte[] jwtKey;
 
+    // 검증을 마친 JWT 캐시 최대 개수
+    private long verifiedTokenCacheSize = 10_000;
+
+    private PostCache postCache = new PostCache();
+
+    private PostJsonCache postJsonCache = new PostJsonCache();
+
+    private PasswordHashing passwordHashing = new PasswordHashing();
+
+    private BulkImport bulkImport = new BulkImport();
+
+    private ContentCompression contentCompression = new ContentCompression();
+
+    private BulkDelete bulkDelete = new BulkDelete();
+
+    private PostCount postCount = new PostCount();
+
+    private PostViews postViews = new PostViews();
+
+    private AsyncRead asyncRead = new AsyncRead();
+
+    private SessionStore sessionStore = new SessionStore();
+
+    private RefreshToken refreshToken = new RefreshToken();
+
+    private EmailFilter emailFilter = new EmailFilter();
+
+    private Replica replica = new Replica();
+
+    private WriteBehind writeBehind = new WriteBehind();
+
+    private RateLimit rateLimit = new RateLimit();
+
     public void setJwtKey(String jwtKey) {
         this.jwtKey = Base64.getDecoder().decode(jwtKey);
     }
@@ -18,4 +56,190 @@ public class AppConfig {
     public byte[] getJwtKey() {
         return jwtKey;
     }
+
+    /**
+     * 글 단건 조회 캐시 설정
+     */
+    @Data
+    public static class PostCache {
+        private long maxEntries = 10_000;
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    /**
+     * 글 단건 조회 응답(직렬화한 JSON 바이트) 캐시 설정
+     */
+    @Data
+    public static class PostJsonCache {
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+        private Duration ttl = Duration.ofMinutes(10);
+        // 이 크기 이상인 글만 gzip 본을 같이 들고 있는다
+        private DataSize gzipMinSize = DataSize.ofKilobytes(1);
+    }
+
+    /**
+     * 비밀번호 해싱 전용 스레드 풀 설정
+     */
+    @Data
+    public static class PasswordHashing {
+        private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        private int queueCapacity = 100;
+        private Duration maxWait = Duration.ofSeconds(10);
+    }
+
+    /**
+     * 글 대량 등록 설정
+     */
+    @Data
+    public static class BulkImport {
+        // JDBC 배치 크기 = 트랜잭션 하나에서 flush/clear 하는 단위
+        private int batchSize = 100;
+        // 응답에 담는 실패 항목 최대 개수 (실패 건수는 항상 정확히 센다)
+        private int maxReportedFailures = 1000;
+    }
+
+    /**
+     * 글 대량 삭제 설정
+     */
+    @Data
+    public static class BulkDelete {
+        // 트랜잭션 하나에서 지우는 글 수 (락을 잡는 범위)
+        private int batchSize = 500;
+    }
+
+    /**
+     * 전체 글 수 설정
+     */
+    @Data
+    public static class PostCount {
+        // 메모리에 들고 있는 글 수를 count(*) 로 다시 맞추는 주기
+        private Duration reconcileInterval = Duration.ofMinutes(5);
+    }
+
+    /**
+     * 글 조회수 설정
+     */
+    @Data
+    public static class PostViews {
+        // 모은 조회수를 DB 에 보내는 주기와 배치 크기
+        private Duration flushInterval = Duration.ofSeconds(5);
+        private int batchSize = 500;
+    }
+
+    /**
+     * 글 조회(GET /posts, /posts/{postId}) 비동기 처리 설정
+     */
+    @Data
+    public static class AsyncRead {
+        // true 면 조회를 전용 스레드 풀에서 실행하고 톰캣 스레드는 바로 돌려준다
+        private boolean enabled = false;
+        // 0 이면 커넥션 풀 크기
+        private int threads = 0;
+        private int queueCapacity = 200;
+        // 큐 대기 + 조회 시간 합계, 넘기면 503
+        private Duration timeout = Duration.ofSeconds(3);
+    }
+
+    /**
+     * 액세스 토큰 세션 설정
+     */
+    @Data
+    public static class SessionStore {
+        private Duration ttl = Session.DEFAULT_TTL;
+        // 메모리에 들고 있는 토큰 최대 개수
+        private long cacheSize = 10_000;
+        // 만료된 세션 행 정리 주기와 한번에 지우는 행 수
+        private Duration sweepInterval = Duration.ofMinutes(1);
+        private int sweepBatchSize = 500;
+    }
+
+    /**
+     * refresh token 설정
+     */
+    @Data
+    public static class RefreshToken {
+        private Duration ttl = Duration.ofDays(14);
+        // 메모리에 들고 있는 토큰 / 폐기된 family 최대 개수
+        private long cacheSize = 10_000;
+        // 만료된 토큰 행 정리 주기와 한번에 지우는 행 수
+        private Duration sweepInterval = Duration.ofHours(1);
+        private int sweepBatchSize = 500;
+    }
+
+    /**
+     * 회원가입 이메일 Bloom filter 설정
+     */
+    @Data
+    public static class EmailFilter {
+        // 예상 가입자 수, 넘기면 오탐 비율이 올라간다 (기본값 기준 약 1.2MB)
+        private long expectedInsertions = 1_000_000;
+        private double falsePositiveRate = 0.01;
+    }
+
+    /**
+     * 읽기 replica 라우팅 설정
+     */
+    @Data
+    public static class Replica {
+        private boolean enabled = false;
+        private List<String> urls = new ArrayList<>();
+        // 비워 두면 spring.datasource 계정
+        private String username;
+        private String password;
+        private Duration healthCheckInterval = Duration.ofSeconds(5);
+        private Duration healthCheckTimeout = Duration.ofSeconds(1);
+        // 쓰기 커밋 후 이 시간 동안은 읽기도 primary 로
+        private Duration readYourWritesWindow = Duration.ofSeconds(2);
+    }
+
+    /**
+     * 글 작성 write-behind 설정
+     */
+    @Data
+    public static class WriteBehind {
+        private boolean enabled = false;
+        // 커밋을 기다리는 글 최대 개수, 넘으면 503
+        private int queueCapacity = 10_000;
+        // 묶음 크기와 첫 글부터 기다리는 최대 시간
+        private int batchSize = 100;
+        private Duration maxDelay = Duration.ofMillis(20);
+        // 접수한 글을 남기는 파일, fsync 를 끄면 OS 가 죽을 때 마지막 접수분이 없어질 수 있다
+        private String journal = "write-behind.journal";
+        private boolean fsync = true;
+        // 접수 상태 조회를 위해 들고 있는 기간과 개수
+        private Duration ticketRetention = Duration.ofMinutes(10);
+        private long ticketCacheSize = 100_000;
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+    }
+
+    /**
+     * 로그인 / 회원가입 요청 제한 설정
+     */
+    @Data
+    public static class RateLimit {
+        private boolean enabled = true;
+        // IP 별 : ipCapacity 개까지 연달아, 이후 ipRefillInterval 마다 1개
+        private int ipCapacity = 20;
+        private Duration ipRefillInterval = Duration.ofSeconds(3);
+        // 이메일 별 (credential stuffing 대상 계정 보호)
+        private int emailCapacity = 5;
+        private Duration emailRefillInterval = Duration.ofSeconds(12);
+        // IP, 이메일 각각 들고 있을 최대 버킷 수
+        private long maxKeys = 100_000;
+    }
+
+    /**
+     * 글 본문 압축 저장 설정
+     */
+    @Data
+    public static class ContentCompression {
+        private boolean enabled = true;
+        // 이보다 작은 본문(UTF-8 기준)은 압축하지 않는다
+        private DataSize threshold = DataSize.ofKilobytes(1);
+        private String codec = "deflate";
+        // 기동시 압축 전 행을 백그라운드로 다시 저장
+        private boolean migrateOnStartup = true;
+        private int migrationBatchSize = 500;
+    }
 }
@@ -0,0 +1,41 @@
+package com.myblog.api.config;
+
+import com.myblog.api.service.PostReadExecutor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Configuration
+@ConditionalOnProperty(prefix = "myblog.async-read", name = "enabled", havingValue = "true")
+public class AsyncReadConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean(destroyMethod = "shutdown")
+    public PostReadExecutor postReadExecutor(AppConfig appConfig, DataSource dataSource, MeterRegistry meterRegistry) {
+        AppConfig.AsyncRead config = appConfig.getAsyncRead();
+        return new PostReadExecutor(
+                config.getThreads() > 0 ? config.getThreads() : poolSize(dataSource),
+                config.getQueueCapacity(),
+                config.getTimeout(),
+                meterRegistry);
+    }
+
+    // 스레드가 커넥션보다 많으면 나머지는 커넥션을 기다리기만 한다
+    // replica 라우팅을 켜면 프록시로 감싸져 있으므로 unwrap 으로 primary 풀을 찾는다
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            // 기본값으로
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
@@ -1,12 +1,17 @@
 package com.myblog.api.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.myblog.api.config.data.UserSession;
 import com.myblog.api.domain.Session;
 import com.myblog.api.exception.ExpiredJwt;
 import com.myblog.api.exception.Unauthorized;
-import com.myblog.api.repository.SessionRepository;
+import com.myblog.api.session.SessionStore;
 import io.jsonwebtoken.*;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.tomcat.util.codec.binary.Base64;
 import org.springframework.core.MethodParameter;
@@ -17,15 +22,52 @@ import org.springframework.web.method.support.ModelAndViewContainer;
 
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 
 @Slf4j
-@RequiredArgsConstructor
 public class AuthResolver implements HandlerMethodArgumentResolver {
 
-    private final SessionRepository sessionRepository;
+    // exp 가 없는 토큰도 캐시에 무기한 남지 않도록
+    private static final long MAX_CACHE_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final SessionStore sessionStore;
     private final AppConfig appconfig;
+    private final MeterRegistry meterRegistry;
+
+    // 파서는 thread-safe 하므로 한번만 만든다
+    private final JwtParser jwtParser;
+
+    // 토큰 digest -> 검증된 UserSession (토큰 만료 시각까지 보관)
+    private final Cache<String, UserSession> verifiedTokens;
+
+    // 서명 검증 시간 (auth.jwt.verify) - result 태그별
+    private final Timer verifyValid;
+    private final Timer verifyInvalid;
+    private final Timer verifyExpired;
+
+    public AuthResolver(SessionStore sessionStore, AppConfig appconfig, MeterRegistry meterRegistry) {
+        this.sessionStore = sessionStore;
+        this.appconfig = appconfig;
+        this.meterRegistry = meterRegistry;
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(appconfig.getJwtKey())
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(appconfig.getVerifiedTokenCacheSize())
+                .expireAfter(new UntilExpiration())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "verifiedTokens");
+        this.verifyValid = verifyTimer("valid", meterRegistry);
+        this.verifyInvalid = verifyTimer("invalid", meterRegistry);
+        this.verifyExpired = verifyTimer("expired", meterRegistry);
+    }
 
     // resolver 로 지원할 타입이 맞는지 확인하는 역할
     // 여기서 parameter 는 userSession 이 넘어온다
@@ -41,12 +83,35 @@ public class AuthResolver implements HandlerMethodArgumentResolver {
             throw new Unauthorized();
         }
 
+        // JWT 가 아니면 예전 불투명 세션 토큰 (SessionStore) - 로그인은 JWT 만 발급한다
+        if (!isJwt(jws)) {
+            return sessionStore.find(jws)
+                    .orElseThrow(() -> new Unauthorized());
+        }
+
+        String digest = digest(jws);
+        UserSession cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            // 캐시 만료와 별개로 exp 는 요청마다 정확히 확인한다
+            if (isExpired(cached)) {
+                verifiedTokens.invalidate(digest);
+                throw new ExpiredJwt("만료된 토큰입니다.");
+            }
+            return cached;
+        }
+
+        UserSession userSession = verify(jws);
+        verifiedTokens.put(digest, userSession);
+        return userSession;
+    }
+
+    // 서명 검증 시간 (auth.jwt.verify) - 캐시 적중시는 기록하지 않는다
+    private UserSession verify(String jws) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Timer result = verifyInvalid;
         try {
 
-            Jws<Claims> claims = Jwts.parserBuilder()
-                    .setSigningKey(appconfig.getJwtKey())
-                    .build()
-                    .parseClaimsJws(jws);
+            Jws<Claims> claims = jwtParser.parseClaimsJws(jws);
 
             String userId = claims.getBody().getSubject();
             Date issuedAt = claims.getBody().getIssuedAt();
@@ -54,11 +119,66 @@ public class AuthResolver implements HandlerMethodArgumentResolver {
 
             log.info("-> issuedAt ={}",issuedAt);
 
-            return new UserSession(Long.parseLong(userId), issuedAt, expiration);
+            UserSession userSession = new UserSession(Long.parseLong(userId), issuedAt, expiration);
+            result = verifyValid;
+            return userSession;
         } catch (ExpiredJwtException e) {
+            result = verifyExpired;
             throw new ExpiredJwt("만료된 토큰입니다.", e);
         } catch (JwtException e) {
             throw new Unauthorized(e);
+        } finally {
+            sample.stop(result);
+        }
+    }
+
+    private static Timer verifyTimer(String result, MeterRegistry meterRegistry) {
+        return Timer.builder("auth.jwt.verify")
+                .description("JWT 서명 검증 시간")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // jjwt 와 같은 기준 : 현재 시각이 exp 를 지나면 만료
+    private static boolean isExpired(UserSession userSession) {
+        return userSession.expiration != null
+                && System.currentTimeMillis() > userSession.expiration.getTime();
+    }
+
+    // header.payload.signature
+    private static boolean isJwt(String token) {
+        return token.chars().filter(c -> c == '.').count() == 2;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return java.util.Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class UntilExpiration implements Expiry<String, UserSession> {
+
+        @Override
+        public long expireAfterCreate(String key, UserSession value, long currentTime) {
+            if (value.expiration == null) {
+                return MAX_CACHE_NANOS;
+            }
+            long remainingMillis = value.expiration.getTime() - System.currentTimeMillis();
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, UserSession value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, UserSession value, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 
@@ -0,0 +1,34 @@
+package com.myblog.api.config;
+
+import com.myblog.api.crypto.BoundedPasswordEncoder;
+import com.myblog.api.crypto.PasswordEncoder;
+import com.myblog.api.crypto.PasswordHashingExecutor;
+import com.myblog.api.crypto.ScryptPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class PasswordEncoderConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public PasswordHashingExecutor passwordHashingExecutor(AppConfig appConfig, MeterRegistry meterRegistry) {
+        AppConfig.PasswordHashing config = appConfig.getPasswordHashing();
+        return new PasswordHashingExecutor(
+                config.getThreads(),
+                config.getQueueCapacity(),
+                config.getMaxWait(),
+                meterRegistry);
+    }
+
+    /**
+     * AuthService 등에서 주입받는 PasswordEncoder 는 전용 스레드 풀에서 실행된다.
+     */
+    @Bean
+    @Primary
+    public PasswordEncoder passwordEncoder(ScryptPasswordEncoder scryptPasswordEncoder,
+                                           PasswordHashingExecutor passwordHashingExecutor) {
+        return new BoundedPasswordEncoder(scryptPasswordEncoder, passwordHashingExecutor);
+    }
+}
@@ -0,0 +1,46 @@
+package com.myblog.api.config;
+
+import com.myblog.api.response.PostJsonBody;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * PostJsonBody -> 응답 본문 (쓰기 전용)
+ * Jackson 컨버터보다 앞에 둬야 한다. (WebMvcConfig)
+ */
+public class PostJsonBodyConverter extends AbstractHttpMessageConverter<PostJsonBody> {
+
+    public PostJsonBodyConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PostJsonBody.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected PostJsonBody readInternal(Class<? extends PostJsonBody> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("PostJsonBody is write only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(PostJsonBody body, MediaType contentType) {
+        return body.contentLength();
+    }
+
+    @Override
+    protected void writeInternal(PostJsonBody body, HttpOutputMessage outputMessage) throws IOException {
+        body.write(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,101 @@
+package com.myblog.api.config;
+
+import com.myblog.api.datasource.ReadYourWritesFilter;
+import com.myblog.api.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * primary / replica 라우팅 (myblog.replica.enabled=true 일 때)
+ * primary 는 spring.datasource 설정 그대로, replica 는 myblog.replica.urls 마다 읽기 전용 풀을 만든다.
+ * open-in-view 로 요청 내내 열려 있는 EntityManager 도 트랜잭션마다 커넥션을 돌려주게 해서, 트랜잭션마다 다시 라우팅한다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "myblog.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                            DataSourceProperties properties,
+                                                            AppConfig appConfig) {
+        AppConfig.Replica config = appConfig.getReplica();
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<String> urls = config.getUrls();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(urls.get(i));
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(config.getUsername() != null ? config.getUsername() : properties.determineUsername());
+            replica.setPassword(config.getPassword() != null ? config.getPassword() : properties.determinePassword());
+            // 설정하지 않았으면 -1 (Hikari 기본값 10 을 쓴다)
+            if (primaryDataSource.getMaximumPoolSize() > 0) {
+                replica.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            }
+            replica.setReadOnly(true);
+            // replica 가 내려가 있어도 기동은 되고, health check 가 살아난 뒤에 쓴다
+            replica.setInitializationFailTimeout(-1);
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                primaryDataSource, replicas, config.getReadYourWritesWindow());
+        routing.startHealthCheck(config.getHealthCheckInterval(), config.getHealthCheckTimeout());
+        return routing;
+    }
+
+    /**
+     * 요청마다 클라이언트의 read-your-writes 쿠키를 읽어서 라우팅에 넘긴다.
+     */
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(AppConfig appConfig) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(appConfig.getReplica().getReadYourWritesWindow()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Hibernate 기본값(Spring)은 커넥션을 세션이 닫힐 때까지 잡고 있는다 (DELAYED_ACQUISITION_AND_HOLD)
+     * open-in-view 면 요청의 첫 트랜잭션이 고른 커넥션(replica 일 수 있음)으로 이후 쓰기까지 나가므로 트랜잭션이 끝나면 돌려준다.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    /**
+     * 트랜잭션의 readOnly 여부가 정해진 뒤 첫 쿼리에서 커넥션을 고르도록 지연 프록시로 감싼다.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
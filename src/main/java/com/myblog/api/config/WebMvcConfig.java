@@ -1,9 +1,13 @@
 package com.myblog.api.config;
 
-import com.myblog.api.repository.SessionRepository;
+import com.myblog.api.metrics.SqlMetricsInterceptor;
+import com.myblog.api.session.SessionStore;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.util.List;
@@ -12,8 +16,14 @@ import java.util.List;
 @RequiredArgsConstructor
 public class WebMvcConfig implements WebMvcConfigurer {
 
-    private final SessionRepository sessionRepository;
+    private final SessionStore sessionStore;
     private final AppConfig appConfig;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlMetricsInterceptor(meterRegistry));
+    }
 
 //    @Override
 //    public void addInterceptors(InterceptorRegistry registry) {
@@ -23,6 +33,12 @@ public class WebMvcConfig implements WebMvcConfigurer {
 
     @Override
     public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
-        resolvers.add(new AuthResolver(sessionRepository, appConfig));
+        resolvers.add(new AuthResolver(sessionStore, appConfig, meterRegistry));
+    }
+
+    // 글 단건 응답 (동기 / 비동기 조회 공통)
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new PostJsonBodyConverter());
     }
 }
@@ -0,0 +1,30 @@
+package com.myblog.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myblog.api.cache.PostCounter;
+import com.myblog.api.search.PostSearchIndex;
+import com.myblog.api.service.PostWriteBehind;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+
+@Configuration
+@ConditionalOnProperty(prefix = "myblog.write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public PostWriteBehind postWriteBehind(EntityManager entityManager,
+                                           PlatformTransactionManager transactionManager,
+                                           PostSearchIndex postSearchIndex,
+                                           PostCounter postCounter,
+                                           ObjectMapper objectMapper,
+                                           AppConfig appConfig,
+                                           MeterRegistry meterRegistry) {
+        return new PostWriteBehind(entityManager, transactionManager, postSearchIndex, postCounter,
+                objectMapper, appConfig.getWriteBehind(), meterRegistry);
+    }
+}
@@ -0,0 +1,54 @@
+package com.myblog.api.controller;
+
+import com.myblog.api.request.PostSearch;
+import com.myblog.api.response.PostJsonBody;
+import com.myblog.api.response.PostSummaryResponse;
+import com.myblog.api.service.PostReadExecutor;
+import com.myblog.api.service.PostService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 글 조회 - 비동기 (myblog.async-read.enabled=true)
+ * 조회는 PostReadExecutor 에서 실행하고, 톰캣 요청 스레드는 바로 돌려준다.
+ * 응답 형식(직렬화해 둔 본문, gzip, ETag, 페이지 헤더)은 PostReadController 와 같다.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "myblog.async-read", name = "enabled", havingValue = "true")
+public class AsyncPostReadController {
+
+    private final PostService postService;
+    private final PostReadExecutor postReadExecutor;
+
+    /**
+     * 304 판단, 조회수, gzip / ETag(-gz) 는 PostReadController 와 같은 코드로 만든다.
+     */
+    @GetMapping("/posts/{postId}")
+    public CompletableFuture<ResponseEntity<PostJsonBody>> get(
+            @PathVariable Long postId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return postReadExecutor.submit("get",
+                () -> PostReadController.jsonResponse(postService, postId, ifNoneMatch, acceptEncoding));
+    }
+
+    /**
+     * 목록 ETag 비교(304)는 응답을 쓸 때 스프링이 한다. (동기 방식과 같음)
+     */
+    @GetMapping("/posts")
+    public CompletableFuture<ResponseEntity<List<PostSummaryResponse>>> getList(@ModelAttribute PostSearch postSearch) {
+        return postReadExecutor.submit("list",
+                () -> PostReadController.listResponse(postService.getPage(postSearch), postSearch));
+    }
+}
@@ -1,10 +1,13 @@
 package com.myblog.api.controller;
 
 import com.myblog.api.config.AppConfig;
+import com.myblog.api.ratelimit.AuthRateLimiter;
 import com.myblog.api.request.Login;
+import com.myblog.api.request.Refresh;
 import com.myblog.api.request.Signup;
 import com.myblog.api.response.SessionResponse;
 import com.myblog.api.service.AuthService;
+import com.myblog.api.session.RefreshTokenStore;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +17,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.crypto.SecretKey;
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -26,30 +31,55 @@ import java.util.TimeZone;
 public class AuthController {
     private final AuthService authService;
     private final AppConfig appConfig;
+    private final RefreshTokenStore refreshTokenStore;
+    private final AuthRateLimiter authRateLimiter;
 
+    /**
+     * 로그인 / 회원가입은 scrypt 해싱 전에 IP, 이메일 별 요청 제한을 먼저 본다. (넘으면 429 + Retry-After)
+     */
     @PostMapping("/auth/login")
-    public SessionResponse login(@RequestBody Login login) {
+    public SessionResponse login(@RequestBody Login login, HttpServletRequest request) {
+        authRateLimiter.check("login", request.getRemoteAddr(), login.getEmail());
         Long userId = authService.signin(login);
 
+        RefreshTokenStore.Issued refreshToken = refreshTokenStore.issue(userId);
+        return new SessionResponse(accessToken(userId), refreshToken.getToken());
+    }
+
+    /**
+     * refresh token 으로 액세스 토큰 재발급 - 비밀번호 확인 없이 HMAC 서명만 한다.
+     * 쓴 refresh token 은 폐기되고 새 refresh token 이 함께 나간다.
+     */
+    @PostMapping("/auth/refresh")
+    public SessionResponse refresh(@RequestBody @Valid Refresh refresh) {
+        RefreshTokenStore.Issued refreshToken = refreshTokenStore.rotate(refresh.getRefreshToken());
+        return new SessionResponse(accessToken(refreshToken.getUserId()), refreshToken.getToken());
+    }
+
+    @PostMapping("/auth/logout")
+    public void logout(@RequestBody @Valid Refresh refresh) {
+        refreshTokenStore.revoke(refresh.getRefreshToken());
+    }
+
+    @PostMapping("/auth/signup")
+    public void signup(@RequestBody Signup signup, HttpServletRequest request) {
+        authRateLimiter.check("signup", request.getRemoteAddr(), signup.getEmail());
+        // dto 로 변환 생략함
+        authService.signup(signup);
+    }
+
+    private String accessToken(Long userId) {
         SecretKey key = Keys.hmacShaKeyFor(appConfig.getJwtKey());
 
         Date now = new Date();
 
         log.info("now date ={}",now);
 
-        String jws = Jwts.builder()
+        return Jwts.builder()
                 .setSubject(String.valueOf(userId))
                 .signWith(key)
                 .setIssuedAt(now)
                 .setExpiration(new Date(System.currentTimeMillis() + (60*1000L)))
                 .compact();
-
-        return new SessionResponse(jws);
-    }
-
-    @PostMapping("/auth/signup")
-    public void signup(@RequestBody Signup signup) {
-        // dto 로 변환 생략함
-        authService.signup(signup);
     }
 }
@@ -3,6 +3,7 @@ package com.myblog.api.controller;
 import com.myblog.api.exception.MyblogException;
 import com.myblog.api.response.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -53,8 +54,12 @@ public class ExceptionController {
                 .build();
 
 
-        ResponseEntity<ErrorResponse> response = ResponseEntity.status(statusCode)
-                .body(body);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(statusCode);
+        if (e.getRetryAfterSeconds() != null) {
+            builder.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        }
+
+        ResponseEntity<ErrorResponse> response = builder.body(body);
 
         return response;
     }
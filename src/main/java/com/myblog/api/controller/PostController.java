@@ -1,25 +1,51 @@
 package com.myblog.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.myblog.api.config.data.UserSession;
+import com.myblog.api.exception.PostTicketNotFound;
+import com.myblog.api.exception.Unauthorized;
+import com.myblog.api.request.PostBulkDelete;
 import com.myblog.api.request.PostCreate;
 import com.myblog.api.request.PostEdit;
-import com.myblog.api.request.PostSearch;
-import com.myblog.api.response.PostResponse;
+import com.myblog.api.response.BulkDeleteResponse;
+import com.myblog.api.response.BulkImportResponse;
+import com.myblog.api.response.PostTicketResponse;
+import com.myblog.api.service.PostBulkDeleteService;
+import com.myblog.api.service.PostImportService;
 import com.myblog.api.service.PostService;
+import com.myblog.api.service.PostWriteBehind;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.Date;
-import java.util.List;
+import java.util.Optional;
 
 
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 public class PostController {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    public static final String TOTAL_PAGES_HEADER = "X-Total-Pages";
+    public static final String HAS_NEXT_HEADER = "X-Has-Next";
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
     private final PostService postService;
+    private final PostImportService postImportService;
+    private final PostBulkDeleteService postBulkDeleteService;
+    private final ObjectMapper objectMapper;
+    private final Optional<PostWriteBehind> postWriteBehind;
 
     @GetMapping("/foo")
     public UserSession foo(UserSession userSession) {
@@ -44,38 +70,70 @@ public class PostController {
         return "인증이 필요한 페이지";
     }
 
+    /**
+     * 글 작성
+     * write-behind 모드면 접수만 하고 202 와 접수 번호를 돌려준다. (상태는 Location 으로 조회)
+     */
     @PostMapping("/posts")
-    public void post(
+    public ResponseEntity<PostTicketResponse> post(
             @RequestBody @Valid PostCreate request,
             @RequestHeader String authorization) {
         if (authorization.equals("forest")) {
             request.validate();
+            if (postWriteBehind.isPresent()) {
+                String ticket = postWriteBehind.get().submit(request);
+                return ResponseEntity.accepted()
+                        .location(URI.create("/posts/tickets/" + ticket))
+                        .body(PostTicketResponse.pending(ticket));
+            }
             postService.write(request);
         }
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * write-behind 글 작성 접수 상태
+     */
+    @GetMapping("/posts/tickets/{ticket}")
+    public PostTicketResponse ticket(@PathVariable String ticket) {
+        return postWriteBehind.flatMap(writeBehind -> writeBehind.find(ticket))
+                .orElseThrow(PostTicketNotFound::new);
     }
 
 
     /**
-     * /posts -> 글 전체 조회 (검색 + 페이징)
-     * /posts/{postId}  -> 글 한개만 조회
+     * 글 대량 등록
+     * JSON 배열 또는 NDJSON(application/x-ndjson) 으로 PostCreate 를 받는다.
+     * 실패한 항목은 index 와 함께 응답하고, 나머지는 그대로 등록한다.
      */
-    @GetMapping("/posts/{postId}")
-    public PostResponse get(@PathVariable Long postId) {
-        PostResponse response = postService.get(postId);
-        return response;
+    @PostMapping(value = "/posts/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON_VALUE})
+    public BulkImportResponse bulk(
+            HttpServletRequest request,
+            @RequestHeader String authorization) throws IOException {
+        if (!authorization.equals("forest")) {
+            throw new Unauthorized();
+        }
+        return postImportService.importPosts(request.getInputStream());
     }
 
     /**
-     * 여러개의 글을 조회 API
-     * /posts (GET)
-     * Page에 관한 파라미터 PostSearch 로 받기
-     *
+     * 전체 글 내보내기 (NDJSON)
+     * DB 커서로 한 건씩 읽어 바로 응답에 쓴다. 한 줄에 글 하나.
      */
-    @GetMapping("/posts")
-    public List<PostResponse> getList(@ModelAttribute PostSearch postSearch) {
-        System.out.println("postSearch.getPage() = " + postSearch.getPage());
-        System.out.println("postSearch.getSize() = " + postSearch.getSize());
-        return postService.getList(postSearch);
+    @GetMapping(value = "/posts/export", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = out -> postService.export(post -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(post));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                .body(body);
     }
 
     /**
@@ -100,4 +158,19 @@ public class PostController {
     public void delete(@PathVariable Long postId) {
         postService.delete(postId);
     }
+
+    /**
+     * 글 대량 삭제
+     * {"ids": [1, 2, 3]} 또는 {"fromId": 1, "toId": 10000} 으로 받는다.
+     * 삭제는 batchSize 개씩 나눠서 커밋한다.
+     */
+    @DeleteMapping("/posts")
+    public BulkDeleteResponse bulkDelete(
+            @RequestBody PostBulkDelete request,
+            @RequestHeader String authorization) {
+        if (!authorization.equals("forest")) {
+            throw new Unauthorized();
+        }
+        return postBulkDeleteService.delete(request);
+    }
 }
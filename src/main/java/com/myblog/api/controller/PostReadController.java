@@ -0,0 +1,177 @@
+package com.myblog.api.controller;
+
+import com.myblog.api.cache.PostJson;
+import com.myblog.api.request.PostSearch;
+import com.myblog.api.response.PostJsonBody;
+import com.myblog.api.response.PostPage;
+import com.myblog.api.response.PostSummaryResponse;
+import com.myblog.api.service.PostService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.myblog.api.controller.PostController.HAS_NEXT_HEADER;
+import static com.myblog.api.controller.PostController.NEXT_CURSOR_HEADER;
+import static com.myblog.api.controller.PostController.TOTAL_COUNT_HEADER;
+import static com.myblog.api.controller.PostController.TOTAL_PAGES_HEADER;
+
+/**
+ * 글 조회 - 톰캣 요청 스레드에서 바로 실행한다. (기본)
+ * myblog.async-read.enabled=true 면 대신 AsyncPostReadController 가 같은 경로로 등록된다.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "myblog.async-read", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class PostReadController {
+
+    private final PostService postService;
+
+    /**
+     * /posts -> 글 전체 조회 (검색 + 페이징)
+     * /posts/{postId}  -> 글 한개만 조회
+     * 응답은 PostJsonCache 의 직렬화된 바이트를 그대로 쓴다. (Jackson 을 거치지 않음, PostJsonBodyConverter)
+     * Accept-Encoding 에 gzip 이 있고 gzip 본이 있는 글이면 미리 압축해 둔 본문으로 응답한다.
+     */
+    @GetMapping("/posts/{postId}")
+    public ResponseEntity<PostJsonBody> get(
+            @PathVariable Long postId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return jsonResponse(postService, postId, ifNoneMatch, acceptEncoding);
+    }
+
+    // 동기 / 비동기 조회 공통
+    static ResponseEntity<PostJsonBody> jsonResponse(PostService postService, Long postId,
+                                                     String ifNoneMatch, String acceptEncoding) {
+        // If-None-Match 는 version 만으로 먼저 비교 -> 304 면 본문 조회/직렬화 없음
+        // gzip 본을 받아 간 클라이언트는 -gz ETag 로 물어본다
+        String etag = etag(postId, postService.getVersion(postId));
+        String matched = matches(ifNoneMatch, gzipEtag(etag)) ? gzipEtag(etag) : matches(ifNoneMatch, etag) ? etag : null;
+        if (matched != null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(matched)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        PostJson json = postService.getJson(postId);
+        long views = postService.view(json);
+        boolean gzip = json.hasGzip() && acceptsGzip(acceptEncoding);
+
+        String responseEtag = etag(json.getId(), json.getVersion());
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(gzip ? gzipEtag(responseEtag) : responseEtag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(new PostJsonBody(json, views, gzip));
+    }
+
+    /**
+     * 여러개의 글을 조회 API
+     * /posts (GET)
+     * Page에 관한 파라미터 PostSearch 로 받기
+     * 커서 페이징 : /posts?after={cursor}&size=N -> 다음 커서는 X-Next-Cursor 헤더로 응답
+     * 검색 : /posts?q={검색어}&page=N -> 관련도 순
+     * 페이지 정보 : X-Total-Count(전체 글 수), X-Total-Pages, X-Has-Next 헤더
+     * ETag 는 목록에 담긴 (id, version) 과 전체 글 수로 만든다. 일치하면 직렬화 없이 304
+     */
+    @GetMapping("/posts")
+    public ResponseEntity<List<PostSummaryResponse>> getList(@ModelAttribute PostSearch postSearch) {
+        log.debug("postSearch page={}, size={}", postSearch.getPage(), postSearch.getSize());
+        return listResponse(postService.getPage(postSearch), postSearch);
+    }
+
+    static ResponseEntity<List<PostSummaryResponse>> listResponse(PostPage page, PostSearch postSearch) {
+        List<PostSummaryResponse> posts = page.getPosts();
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(etag(page))
+                .header(TOTAL_COUNT_HEADER, String.valueOf(page.getTotal()))
+                .header(TOTAL_PAGES_HEADER, String.valueOf(page.getTotalPages()))
+                .header(HAS_NEXT_HEADER, String.valueOf(page.isHasNext()));
+        if (!postSearch.hasQuery() && posts.size() == postSearch.getLimit()) {
+            Long lastId = posts.get(posts.size() - 1).getId();
+            builder.header(NEXT_CURSOR_HEADER, PostSearch.encodeCursor(lastId));
+        }
+        return builder.body(posts);
+    }
+
+    // "gzip" 또는 "*" 이 q=0 이 아닌 값으로 들어 있으면 gzip 으로 응답한다
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().replace(" ", "");
+                if (param.startsWith("q=") && param.substring(2).matches("0(\\.0*)?")) {
+                    refused = true;
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 본문의 조회수는 요청마다 달라지므로 약한 ETag - version 이 같으면 같은 글로 본다
+    static String etag(Long postId, Long version) {
+        return "W/\"" + postId + "-" + version + "\"";
+    }
+
+    // content-coding 마다 ETag 를 다르게 둔다 : W/"id-version" -> W/"id-version-gz"
+    static String gzipEtag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gz\"";
+    }
+
+    // If-None-Match 는 여러 값, * , 약한 ETag(W/) 를 허용한다 (약한 비교)
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || opaque(candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static String etag(PostPage page) {
+        StringBuilder source = new StringBuilder().append(page.getTotal()).append(':');
+        for (PostSummaryResponse post : page.getPosts()) {
+            source.append(post.getId()).append('-').append(post.getVersion()).append(',');
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,28 @@
+package com.myblog.api.crypto;
+
+/**
+ * 실제 PasswordEncoder 를 PasswordHashingExecutor 위에서 실행하는 래퍼
+ * 메트릭은 감싼 구현체 이름(encoder 태그)별로 나뉜다.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+    private final String encoderName;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.encoderName = delegate.getClass().getSimpleName();
+    }
+
+    @Override
+    public String encrypt(String rawPassword) {
+        return executor.execute(encoderName, "encrypt", () -> delegate.encrypt(rawPassword));
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String encryptedPassword) {
+        return executor.execute(encoderName, "matches", () -> delegate.matches(rawPassword, encryptedPassword));
+    }
+}
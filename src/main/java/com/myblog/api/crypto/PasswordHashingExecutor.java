@@ -0,0 +1,109 @@
+package com.myblog.api.crypto;
+
+import com.myblog.api.exception.PasswordHashingBusy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 비밀번호 해싱 전용 스레드 풀
+ * scrypt 가 톰캣 요청 스레드에서 모든 코어를 쓰지 않도록 스레드 수와 대기 큐를 제한하고,
+ * 큐가 가득 차면 기다리지 않고 바로 PasswordHashingBusy(503) 를 던진다.
+ */
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    // "name encoder operation" -> Timer (태그 조합마다 한번만 등록)
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public PasswordHashingExecutor(int threads, int queueCapacity, Duration maxWait, MeterRegistry meterRegistry) {
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxWait = maxWait;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("password.hashing.queue", executor, e -> e.getQueue().size())
+                .description("해싱 대기 중인 요청 수")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("큐가 가득 차서 거절된 요청 수")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(String encoder, String operation, Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                timer("password.hashing.wait", encoder, operation).record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.call();
+                } finally {
+                    timer("password.hashing.time", encoder, operation).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusy(e);
+        }
+
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingBusy(e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusy(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Timer timer(String name, String encoder, String operation) {
+        return timers.computeIfAbsent(name + " " + encoder + " " + operation, key -> Timer.builder(name)
+                .tag("encoder", encoder)
+                .tag("operation", operation)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,73 @@
+package com.myblog.api.datasource;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import java.util.function.Supplier;
+
+/**
+ * 클라이언트(요청) 단위 read-your-writes 상태
+ * 쓰기를 커밋한 클라이언트에게만 "이 시각까지는 primary 에서 읽기" 를 쿠키로 내려주고, 그 클라이언트의 요청만 primary 에서 읽는다.
+ * 요청 밖 스레드(스케줄러, write-behind 등)에는 상태가 없으므로 그 쓰기는 다른 클라이언트의 읽기에 영향을 주지 않는다.
+ * 요청마다 ReadYourWritesFilter 가 묶고 푼다.
+ */
+public final class ReadYourWrites {
+
+    public static final String COOKIE = "myblog-read-primary-until";
+
+    private static final ThreadLocal<ReadYourWrites> CURRENT = new ThreadLocal<>();
+
+    private final HttpServletResponse response;
+    private volatile long readPrimaryUntil;
+
+    public ReadYourWrites(long readPrimaryUntil, HttpServletResponse response) {
+        this.readPrimaryUntil = readPrimaryUntil;
+        this.response = response;
+    }
+
+    public static ReadYourWrites current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(ReadYourWrites client) {
+        CURRENT.set(client);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 다른 스레드(비동기 조회)에서 실행할 때 요청의 상태를 이어 받는다.
+     */
+    public static <T> T callAs(ReadYourWrites client, Supplier<T> task) {
+        ReadYourWrites previous = CURRENT.get();
+        CURRENT.set(client);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public boolean readsPrimary(long now) {
+        return now < readPrimaryUntil;
+    }
+
+    /**
+     * 쓰기 커밋 직후 - 같은 요청의 이후 읽기와, 쿠키를 들고 오는 다음 요청들은 until 까지 primary 에서 읽는다.
+     */
+    void wrote(long until, long windowMillis) {
+        readPrimaryUntil = until;
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, String.valueOf(until));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+            response.addCookie(cookie);
+        }
+    }
+}
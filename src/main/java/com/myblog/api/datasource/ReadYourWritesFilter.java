@@ -0,0 +1,53 @@
+package com.myblog.api.datasource;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * 요청마다 ReadYourWrites 를 묶는다. 쿠키 값은 window 보다 먼 시각이면 window 로 자른다.
+ * 쿠키를 조작해도 그 클라이언트 자신의 읽기만 primary 로 갈 뿐이다.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final long windowMillis;
+
+    public ReadYourWritesFilter(Duration readYourWritesWindow) {
+        this.windowMillis = readYourWritesWindow.toMillis();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadYourWrites.bind(new ReadYourWrites(readPrimaryUntil(request), response));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+
+    private long readPrimaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (!ReadYourWrites.COOKIE.equals(cookie.getName())) {
+                continue;
+            }
+            try {
+                return Math.min(Long.parseLong(cookie.getValue()), System.currentTimeMillis() + windowMillis);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,155 @@
+package com.myblog.api.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기 전용 트랜잭션은 replica, 그 밖(쓰기 트랜잭션, 트랜잭션 밖)은 primary 로 보내는 DataSource
+ * 트랜잭션 시작 시점에는 readOnly 여부가 아직 정해지지 않으므로 LazyConnectionDataSourceProxy 로 감싸서 써야 한다.
+ * - 쓰기 트랜잭션이 커밋되면 쓴 클라이언트(ReadYourWrites)의 읽기만 readYourWritesWindow 동안 primary 로 보낸다.
+ *   (복제 지연 동안 방금 쓴 값이 안 보이는 것 방지, 다른 클라이언트는 계속 replica 에서 읽는다)
+ * - replica 는 healthCheck 로 살아 있는 것만 돌아가며 쓰고, 하나도 없으면 primary 로 읽는다.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder, AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final long readYourWritesMillis;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-health-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 처음 검사 전까지는 비어 있어서 primary 로 읽는다
+    private volatile List<String> healthy = List.of();
+
+    // 라우팅 이유 -> 카운터 (MeterRegistry 가 DataSource 에 의존하므로 bindTo 에서 만든다)
+    private volatile Map<String, Counter> routes = Map.of();
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    Map<String, DataSource> replicas,
+                                    Duration readYourWritesWindow) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.readYourWritesMillis = readYourWritesWindow.toMillis();
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("datasource.replicas.healthy", this, routing -> routing.healthy.size())
+                .description("읽기에 쓰고 있는 replica 수")
+                .register(registry);
+
+        Map<String, Counter> routes = new HashMap<>();
+        for (String reason : List.of("write", "read-your-writes", "no-replica")) {
+            routes.put(reason, registry.counter("datasource.route", "target", PRIMARY, "reason", reason));
+        }
+        routes.put("read", registry.counter("datasource.route", "target", "replica", "reason", "read"));
+        this.routes = routes;
+    }
+
+    public void startHealthCheck(Duration interval, Duration timeout) {
+        long millis = interval.toMillis();
+        healthChecker.scheduleWithFixedDelay(() -> checkReplicas(timeout), 0, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * replica 마다 커넥션을 하나 받아서 isValid 로 확인한다.
+     */
+    public void checkReplicas(Duration timeout) {
+        List<String> alive = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            try (Connection connection = replica.getValue().getConnection()) {
+                if (connection.isValid(Math.max(1, (int) timeout.toSeconds()))) {
+                    alive.add(replica.getKey());
+                    continue;
+                }
+                log.warn("replica is not valid. replica={}", replica.getKey());
+            } catch (SQLException | RuntimeException e) {
+                log.warn("replica health check failed. replica={}, message={}", replica.getKey(), e.getMessage());
+            }
+        }
+
+        if (!alive.equals(healthy)) {
+            log.info("healthy replicas changed. healthy={}", alive);
+        }
+        healthy = List.copyOf(alive);
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthy;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        ReadYourWrites client = ReadYourWrites.current();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (client != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        client.wrote(System.currentTimeMillis() + readYourWritesMillis, readYourWritesMillis);
+                    }
+                });
+            }
+            return route(PRIMARY, "write");
+        }
+
+        if (client != null && client.readsPrimary(System.currentTimeMillis())) {
+            return route(PRIMARY, "read-your-writes");
+        }
+
+        List<String> healthy = this.healthy;
+        if (healthy.isEmpty()) {
+            return route(PRIMARY, "no-replica");
+        }
+        return route(healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size())), "read");
+    }
+
+    private String route(String target, String reason) {
+        Counter counter = routes.get(reason);
+        if (counter != null) {
+            counter.increment();
+        }
+        return target;
+    }
+
+    @Override
+    public void close() throws Exception {
+        healthChecker.shutdownNow();
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable) {
+                ((AutoCloseable) replica).close();
+            }
+        }
+    }
+}
@@ -7,33 +7,73 @@ import javax.persistence.*;
 @Entity
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-@ToString
+@ToString(exclude = "content")
 public class Post {
 
+    public static final int EXCERPT_LENGTH = 200;
+
+    // IDENTITY 는 insert 배치가 꺼지므로 시퀀스(pooled)로 id 를 미리 할당한다
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq_generator")
+    @SequenceGenerator(name = "post_seq_generator", sequenceName = "post_seq", allocationSize = 50)
     private Long id;
 
+    // 수정될 때마다 1 증가 (ETag, 낙관적 락) - PATCH 는 PostRepository.update 가 version 조건을 걸고 직접 올린다
+    @Version
+    private Long version;
+
     private String title;
 
-    @Lob // 자바에서는 String , DB에서는 Long text 형태로
-    private String content;
+    // 본문은 별도 테이블 - 실제로 getContent() 를 부를 때만 읽는다
+    @OneToOne(fetch = FetchType.LAZY, optional = false, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "content_id", nullable = false, unique = true)
+    private PostContent content;
+
+    // 목록용 본문 앞부분 - content 는 압축되어 있어 DB 에서 자를 수 없으므로 따로 저장
+    @Column(length = EXCERPT_LENGTH)
+    private String excerpt;
+
+    // 조회수 - 엔티티로 올리지 않고 PostViewCounter 가 모아서 update 한다 (version 은 그대로)
+    @Column(nullable = false)
+    private long views;
 
     @Builder
     public Post(String title, String content) {
         this.title = title;
-        this.content = content;
+        this.content = new PostContent(content);
+        this.excerpt = excerpt(content);
+    }
+
+    public String getContent() {
+        return content.getBody();
+    }
+
+    // 글 version + 본문 version -> 제목이나 본문 중 하나만 바뀌어도 커진다 (ETag)
+    public Long getRevision() {
+        return version + content.getVersion();
     }
 
 
+    /**
+     * 본문은 미리 채우지 않는다 - content 가 null 이면 본문은 그대로 두고 읽지도 않는다.
+     */
     public PostEditor.PostEditorBuilder toEditor() {
         return PostEditor.builder()
-                .title(title)
-                .content(content);
+                .title(title);
     }
 
     public void edit(PostEditor postEditor) {
         title = postEditor.getTitle();
-        content = postEditor.getContent();
+        if (postEditor.getContent() != null) {
+            content.edit(postEditor.getContent());
+            excerpt = excerpt(postEditor.getContent());
+        }
+    }
+
+    public static String excerpt(String content) {
+        if (content == null) {
+            return null;
+        }
+        return content.substring(0, Math.min(content.length(), EXCERPT_LENGTH));
     }
 }
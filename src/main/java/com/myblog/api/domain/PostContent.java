@@ -0,0 +1,39 @@
+package com.myblog.api.domain;
+
+import com.myblog.api.compression.CompressedContentConverter;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * 글 본문 (post_content 테이블)
+ * 본문 @Lob 을 post 와 분리해서, 제목/목록/삭제처럼 본문이 필요 없는 경로는 이 테이블을 읽지 않는다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class PostContent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_content_seq_generator")
+    @SequenceGenerator(name = "post_content_seq_generator", sequenceName = "post_content_seq", allocationSize = 50)
+    private Long id;
+
+    // 본문만 바뀐 경우에도 ETag 가 바뀌도록 (Post.getRevision)
+    @Version
+    private Long version;
+
+    @Lob // 자바에서는 String , DB에서는 Long text 형태로
+    @Convert(converter = CompressedContentConverter.class) // 일정 크기 이상은 압축해서 저장
+    private String body;
+
+    public PostContent(String body) {
+        this.body = body;
+    }
+
+    public void edit(String body) {
+        this.body = body;
+    }
+}
@@ -0,0 +1,55 @@
+package com.myblog.api.domain;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * refresh token - 원문은 저장하지 않고 SHA-256 해시만 저장한다.
+ * 한번 쓰면 usedAt 이 채워지고 같은 family 로 새 토큰이 발급된다. (rotation)
+ * 이미 쓴 토큰이 다시 오면 family 전체를 revoked 로 바꾼다. (탈취 의심)
+ * User 와 연관관계를 두지 않아서 토큰 처리에 users 테이블이 끼지 않는다.
+ */
+@Getter
+@Entity
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(indexes = {
+        @Index(name = "ux_refresh_token_token_hash", columnList = "tokenHash", unique = true),
+        @Index(name = "ix_refresh_token_family_id", columnList = "familyId"),
+        @Index(name = "ix_refresh_token_expires_at", columnList = "expiresAt")
+})
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 44)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    // 로그인 한번에서 이어지는 토큰들을 묶는 값
+    @Column(nullable = false, length = 36)
+    private String familyId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime usedAt;
+
+    private boolean revoked;
+
+    @Builder
+    public RefreshToken(String tokenHash, Long userId, String familyId, LocalDateTime expiresAt) {
+        this.tokenHash = tokenHash;
+        this.userId = userId;
+        this.familyId = familyId;
+        this.expiresAt = expiresAt;
+    }
+}
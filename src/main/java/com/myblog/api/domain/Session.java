@@ -4,27 +4,51 @@ import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import javax.persistence.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * 불투명(opaque) 액세스 토큰 세션
+ * 토큰 조회는 unique 인덱스로, 만료 행 정리는 expiresAt 인덱스로 한다. (SessionStore)
+ */
 @Getter
 @Entity
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(indexes = {
+        @Index(name = "ux_session_access_token", columnList = "accessToken", unique = true),
+        @Index(name = "ix_session_expires_at", columnList = "expiresAt")
+})
 public class Session {
 
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(30);
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(nullable = false, length = 36)
     private String accessToken;
 
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // User 쪽에 컬렉션을 두지 않으므로 회원 삭제시 세션 행은 DB 가 지운다
     @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private User user;
 
+    /**
+     * ttl 이 없으면 DEFAULT_TTL
+     */
     @Builder
-    public Session(User user) {
+    public Session(User user, Duration ttl) {
         this.accessToken = UUID.randomUUID().toString();
+        this.expiresAt = LocalDateTime.now().plus(ttl != null ? ttl : DEFAULT_TTL);
         this.user = user;
     }
 }
@@ -7,39 +7,31 @@ import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 @Getter
 @Entity
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = User.EMAIL_INDEX, columnList = "email", unique = true)
+})
 public class User {
 
+    // 중복 가입은 이 인덱스의 제약 위반으로 판단한다 (AuthService.signup)
+    public static final String EMAIL_INDEX = "ux_users_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     private String name;
 
+    @Column(nullable = false)
     private String email;
 
     private String password;
 
     private LocalDateTime createdAt;
 
-    @OneToMany(cascade = CascadeType.ALL, mappedBy = "user")
-    private List<Session> sessions = new ArrayList<>();
-
-    public Session addSession() {
-        Session session = Session.builder()
-                .user(this)
-                .build();
-        sessions.add(session);
-
-        return session;
-    }
-
     @Builder
     public User(String name, String email, String password) {
         this.name = name;
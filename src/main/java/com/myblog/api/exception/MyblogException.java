@@ -21,6 +21,11 @@ public abstract class MyblogException extends RuntimeException{
     // 반드시 구현해야 하는 메소드
     public abstract int getStatusCode();
 
+    // 값이 있으면 Retry-After 헤더로 내려준다
+    public Long getRetryAfterSeconds() {
+        return null;
+    }
+
     public void addValidation(String fieldName, String message) {
         validation.put(fieldName, message);
     }
@@ -0,0 +1,19 @@
+package com.myblog.api.exception;
+
+/**
+ * status -> 409
+ * 글을 읽은 뒤 다른 요청이 먼저 수정했을 때 (낙관적 락)
+ */
+public class PostEditConflict extends MyblogException {
+
+    private static final String MESSAGE = "다른 요청이 먼저 글을 수정했습니다. 다시 시도해주세요.";
+
+    public PostEditConflict() {
+        super(MESSAGE);
+    }
+
+    @Override
+    public int getStatusCode() {
+        return 409;
+    }
+}
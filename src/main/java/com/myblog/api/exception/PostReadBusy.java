@@ -0,0 +1,24 @@
+package com.myblog.api.exception;
+
+/**
+ * status -> 503
+ * 비동기 조회 큐가 가득 찼을 때
+ */
+public class PostReadBusy extends MyblogException {
+
+    private static final String MESSAGE = "요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요.";
+
+    public PostReadBusy(Throwable cause) {
+        super(MESSAGE, cause);
+    }
+
+    @Override
+    public int getStatusCode() {
+        return 503;
+    }
+
+    @Override
+    public Long getRetryAfterSeconds() {
+        return 1L;
+    }
+}
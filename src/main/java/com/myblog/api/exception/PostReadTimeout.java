@@ -0,0 +1,24 @@
+package com.myblog.api.exception;
+
+/**
+ * status -> 503
+ * 비동기 조회가 제한 시간 안에 끝나지 않았을 때
+ */
+public class PostReadTimeout extends MyblogException {
+
+    private static final String MESSAGE = "요청 처리 시간이 초과되었습니다. 잠시 후 다시 시도해주세요.";
+
+    public PostReadTimeout(Throwable cause) {
+        super(MESSAGE, cause);
+    }
+
+    @Override
+    public int getStatusCode() {
+        return 503;
+    }
+
+    @Override
+    public Long getRetryAfterSeconds() {
+        return 1L;
+    }
+}
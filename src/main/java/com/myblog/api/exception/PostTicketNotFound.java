@@ -0,0 +1,19 @@
+package com.myblog.api.exception;
+
+/**
+ * status -> 404
+ * 없거나 보관 기간이 지난 write-behind 접수 번호
+ */
+public class PostTicketNotFound extends MyblogException {
+
+    private static final String MESSAGE = "존재하지 않는 접수 번호입니다.";
+
+    public PostTicketNotFound() {
+        super(MESSAGE);
+    }
+
+    @Override
+    public int getStatusCode() {
+        return 404;
+    }
+}
@@ -0,0 +1,27 @@
+package com.myblog.api.exception;
+
+/**
+ * status -> 429
+ * 로그인 / 회원가입 요청 횟수 제한을 넘었을 때
+ */
+public class TooManyRequests extends MyblogException {
+
+    private static final String MESSAGE = "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.";
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequests(long retryAfterSeconds) {
+        super(MESSAGE);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public int getStatusCode() {
+        return 429;
+    }
+
+    @Override
+    public Long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,62 @@
+package com.myblog.api.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 요청당 실행한 SQL 문 개수 (sql.statements)
+ * uri 태그는 http.server.requests 와 같은 템플릿 경로를 쓴다.
+ * 비동기 응답(StreamingResponseBody)은 핸들러 스레드에서 실행한 SQL 까지만 센다.
+ */
+@RequiredArgsConstructor
+public class SqlMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    // "method uri" -> sql.statements (uri 는 템플릿 경로라 개수가 정해져 있다)
+    private final Map<String, DistributionSummary> statementsByUri = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST) {
+            SqlStatementCounter.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        record(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        record(request);
+    }
+
+    private void record(HttpServletRequest request) {
+        int statements = SqlStatementCounter.stop();
+        if (statements < 0) {
+            return;
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String method = request.getMethod();
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        statementsByUri.computeIfAbsent(method + " " + uri, tags -> DistributionSummary.builder("sql.statements")
+                        .description("요청당 실행한 SQL 문 개수")
+                        .tag("method", method)
+                        .tag("uri", uri)
+                        .register(meterRegistry))
+                .record(statements);
+    }
+}
@@ -0,0 +1,57 @@
+package com.myblog.api.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 요청 처리 스레드에서 Hibernate 가 준비한 SQL 문 개수를 센다.
+ * start() ~ stop() 사이에서만 세고, 그 밖(스케줄러, 기동시 색인 등)은 무시한다.
+ * 배치 insert 는 JDBC 배치 하나를 한 문장으로 센다.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * 센 개수를 돌려주고 초기화한다. start() 없이 부르면 -1
+     */
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? -1 : count[0];
+    }
+
+    /**
+     * task 를 실행하는 동안 현재 스레드에서 준비한 SQL 을 모아서 돌려준다. (테스트, 진단용)
+     */
+    public static List<String> capture(Runnable task) {
+        List<String> statements = new ArrayList<>();
+        CAPTURED.set(statements);
+        try {
+            task.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        List<String> captured = CAPTURED.get();
+        if (captured != null) {
+            captured.add(sql);
+        }
+        return sql;
+    }
+}
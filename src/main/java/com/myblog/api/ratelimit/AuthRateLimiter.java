@@ -0,0 +1,81 @@
+package com.myblog.api.ratelimit;
+
+import com.myblog.api.config.AppConfig;
+import com.myblog.api.exception.TooManyRequests;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로그인 / 회원가입 요청 제한 - 둘 다 scrypt 해싱을 하므로 막지 않으면 CPU 를 다 쓸 수 있다.
+ * 클라이언트 IP 별, 이메일 별 버킷을 따로 두고 둘 다 통과해야 한다. (IP 는 두 API 가 같은 버킷을 쓴다)
+ * IP 는 request.getRemoteAddr() - 프록시 뒤라면 server.forward-headers-strategy 로 맞춘다.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private final boolean enabled;
+    private final RateLimiter ipLimiter;
+    private final RateLimiter emailLimiter;
+    private final MeterRegistry meterRegistry;
+
+    // endpoint:key -> auth.rate.limited 카운터 (태그 조합마다 한번만 등록)
+    private final Map<String, Counter> limited = new ConcurrentHashMap<>();
+
+    public AuthRateLimiter(AppConfig appConfig, MeterRegistry meterRegistry) {
+        AppConfig.RateLimit config = appConfig.getRateLimit();
+        this.enabled = config.isEnabled();
+        this.ipLimiter = new RateLimiter(config.getIpCapacity(), config.getIpRefillInterval(), config.getMaxKeys());
+        this.emailLimiter = new RateLimiter(config.getEmailCapacity(), config.getEmailRefillInterval(), config.getMaxKeys());
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("auth.rate.buckets", ipLimiter, RateLimiter::size)
+                .description("요청 제한 버킷 수")
+                .tag("key", "ip")
+                .register(meterRegistry);
+        Gauge.builder("auth.rate.buckets", emailLimiter, RateLimiter::size)
+                .description("요청 제한 버킷 수")
+                .tag("key", "email")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param endpoint 메트릭 태그 (login, signup)
+     * @throws TooManyRequests 제한을 넘었을 때 - 다음 토큰이 찰 때까지의 초를 Retry-After 로 내린다
+     */
+    public void check(String endpoint, String clientIp, String email) {
+        if (!enabled) {
+            return;
+        }
+        acquire(ipLimiter, endpoint, "ip", clientIp);
+        if (email != null) {
+            acquire(emailLimiter, endpoint, "email", email.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    public void clear() {
+        ipLimiter.clear();
+        emailLimiter.clear();
+    }
+
+    private void acquire(RateLimiter limiter, String endpoint, String keyType, String key) {
+        long waitNanos = limiter.tryAcquire(key);
+        if (waitNanos == 0) {
+            return;
+        }
+
+        limited.computeIfAbsent(endpoint + ":" + keyType, tags -> Counter.builder("auth.rate.limited")
+                        .description("요청 제한으로 거절한 로그인 / 회원가입 요청 수")
+                        .tag("endpoint", endpoint)
+                        .tag("key", keyType)
+                        .register(meterRegistry))
+                .increment();
+        throw new TooManyRequests(Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+    }
+}
@@ -0,0 +1,65 @@
+package com.myblog.api.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 키별 토큰 버킷 - capacity 개까지 연달아 허용하고, refillInterval 마다 1개씩 다시 찬다.
+ * 버킷 상태는 "가득 차게 되는 시각" 하나뿐이라 AtomicLong 의 CAS 로만 갱신한다. (락 없음)
+ * 버킷은 최대 maxKeys 개까지만 들고 있고, 다 찰 만큼 쓰이지 않은 버킷은 지운다. (지워도 가득 찬 버킷과 같다)
+ */
+public class RateLimiter {
+
+    private final Cache<String, AtomicLong> buckets;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoTime;
+
+    public RateLimiter(int capacity, Duration refillInterval, long maxKeys) {
+        this(capacity, refillInterval, maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(int capacity, Duration refillInterval, long maxKeys, LongSupplier nanoTime) {
+        this.intervalNanos = refillInterval.toNanos();
+        this.burstNanos = intervalNanos * capacity;
+        this.nanoTime = nanoTime;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .build();
+    }
+
+    /**
+     * 토큰 하나를 쓴다.
+     *
+     * @return 0 이면 통과, 아니면 다음 토큰이 찰 때까지 남은 시간(ns)
+     */
+    public long tryAcquire(String key) {
+        AtomicLong full = buckets.get(key, k -> new AtomicLong(nanoTime.getAsLong()));
+        while (true) {
+            long now = nanoTime.getAsLong();
+            long current = full.get();
+            // 토큰 하나를 쓰면 가득 차는 시각이 interval 만큼 늦어진다
+            long next = (current - now > 0 ? current : now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (full.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+
+    public void clear() {
+        buckets.invalidateAll();
+    }
+}
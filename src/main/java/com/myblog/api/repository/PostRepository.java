@@ -1,7 +1,20 @@
 package com.myblog.api.repository;
 
 import com.myblog.api.domain.Post;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface PostRepository extends JpaRepository<Post, Long>, PostRepositoryCustom {
+
+    // 본문까지 필요한 조회 - post_content 를 join 해서 한번에 읽는다
+    @Override
+    @EntityGraph(attributePaths = "content")
+    Optional<Post> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "content")
+    List<Post> findAll();
 }
@@ -1,11 +1,51 @@
 package com.myblog.api.repository;
 
 import com.myblog.api.domain.Post;
+import com.myblog.api.domain.PostEditor;
 import com.myblog.api.request.PostSearch;
+import com.myblog.api.response.PostSummaryResponse;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PostRepositoryCustom {
 
-    List<Post> getList(PostSearch postSearch);
+    List<PostSummaryResponse> getList(PostSearch postSearch);
+
+    List<PostSummaryResponse> getListByIds(Collection<Long> ids);
+
+    /**
+     * 본문을 읽지 않고 revision(글 version + 본문 version) 만 조회 (조건부 GET)
+     */
+    Optional<Long> findRevision(Long id);
+
+    /**
+     * 엔티티를 읽지 않고 글 version 만 조회 (수정 전 낙관적 락 기준)
+     */
+    Optional<Long> findVersion(Long id);
+
+    /**
+     * 엔티티를 읽지 않고 PostEditor 에서 null 이 아닌 필드만 갱신한다. 갱신한 글 수를 돌려준다. (트랜잭션 안에서 사용)
+     * 글 version 이 expectedVersion 일 때만 갱신하고 1 증가시킨다 - 0 이면 다른 요청이 먼저 수정했거나 삭제했다.
+     * 본문이 있으면 post_content 도 갱신하고 본문 version 을 1 증가시킨다.
+     */
+    long update(Long id, Long expectedVersion, PostEditor postEditor);
+
+    /**
+     * 엔티티를 읽지 않고 글과 본문을 id 로 삭제한다. 삭제한 글 수를 돌려준다. (없는 id 는 무시)
+     */
+    long deleteWithContent(Collection<Long> ids);
+
+    /**
+     * fromId ~ toId (양 끝 포함) 사이의 글 id 를 오름차순으로 최대 limit 개 조회 (대량 삭제용)
+     */
+    List<Long> findIdsBetween(Long fromId, Long toId, int limit);
+
+    /**
+     * 전체 글을 id 순으로 스트리밍 (트랜잭션 안에서 사용하고 반드시 close)
+     * 읽은 엔티티는 바로 detach 되어 영속성 컨텍스트에 쌓이지 않는다.
+     */
+    Stream<Post> streamAll();
 }
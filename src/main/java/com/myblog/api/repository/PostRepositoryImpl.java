@@ -1,25 +1,181 @@
 package com.myblog.api.repository;
 
 import com.myblog.api.domain.Post;
+import com.myblog.api.domain.PostEditor;
 import com.myblog.api.domain.QPost;
+import com.myblog.api.domain.QPostContent;
 import com.myblog.api.request.PostSearch;
+import com.myblog.api.response.PostSummaryResponse;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.annotations.QueryHints;
 
+import javax.persistence.EntityManager;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class PostRepositoryImpl implements PostRepositoryCustom{
 
+    private static final int STREAM_FETCH_SIZE = 500;
+
     private final JPAQueryFactory jpaQueryFactory;
+    private final EntityManager entityManager;
 
 
+    /**
+     * 목록은 id, title, excerpt 만 조회 (본문 @Lob 을 읽지 않는다)
+     */
     @Override
-    public List<Post> getList(PostSearch postSearch) {
-        return jpaQueryFactory.selectFrom(QPost.post)
-                .limit(postSearch.getSize())
-                .offset(postSearch.getOffset()) // 수동으로 페이징 보정 처리
-                .orderBy(QPost.post.id.desc())
+    public List<PostSummaryResponse> getList(PostSearch postSearch) {
+        JPAQuery<PostSummaryResponse> query = selectSummary()
+                .limit(postSearch.getLimit())
+                .orderBy(QPost.post.id.desc());
+
+        if (postSearch.isCursorMode()) {
+            // 커서 페이징 - offset 없이 PK 인덱스로 바로 탐색
+            return query.where(QPost.post.id.lt(postSearch.getCursorId()))
+                    .fetch();
+        }
+        return query.offset(postSearch.getOffset()) // 수동으로 페이징 보정 처리
+                .fetch();
+    }
+
+    @Override
+    public List<PostSummaryResponse> getListByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return selectSummary()
+                .where(QPost.post.id.in(ids))
                 .fetch();
     }
+
+    @Override
+    public Optional<Long> findRevision(Long id) {
+        QPost post = QPost.post;
+        QPostContent content = QPostContent.postContent;
+
+        return Optional.ofNullable(jpaQueryFactory
+                .select(post.version.add(content.version))
+                .from(post)
+                .join(post.content, content)
+                .where(post.id.eq(id))
+                .fetchOne());
+    }
+
+    @Override
+    public Optional<Long> findVersion(Long id) {
+        QPost post = QPost.post;
+
+        return Optional.ofNullable(jpaQueryFactory
+                .select(post.version)
+                .from(post)
+                .where(post.id.eq(id))
+                .fetchOne());
+    }
+
+    @Override
+    public long update(Long id, Long expectedVersion, PostEditor postEditor) {
+        QPost post = QPost.post;
+
+        // 제목만 바뀌면 이 한 문장으로 끝난다 (본문 LOB 을 읽지도 쓰지도 않음)
+        // @Version 을 거치지 않으므로 version 조건을 직접 건다
+        JPAUpdateClause update = jpaQueryFactory.update(post)
+                .set(post.version, post.version.add(1))
+                .where(post.id.eq(id), post.version.eq(expectedVersion));
+        if (postEditor.getTitle() != null) {
+            update.set(post.title, postEditor.getTitle());
+        }
+        if (postEditor.getContent() != null) {
+            update.set(post.excerpt, Post.excerpt(postEditor.getContent()));
+        }
+
+        long updated = update.execute();
+        if (updated == 0 || postEditor.getContent() == null) {
+            return updated;
+        }
+
+        // 위 update 가 post 행을 잠갔으므로 커밋할 때까지 다른 트랜잭션이 이 글을 지우거나 content_id 를 바꿀 수 없다
+        // -> 같은 트랜잭션 안에서는 아래 서브쿼리가 항상 이 글의 본문을 가리킨다
+        // 본문은 CompressedContentConverter 를 거쳐 바인딩된다
+        QPostContent content = QPostContent.postContent;
+        jpaQueryFactory.update(content)
+                .set(content.body, postEditor.getContent())
+                .set(content.version, content.version.add(1))
+                .where(content.id.eq(JPAExpressions
+                        .select(post.content.id)
+                        .from(post)
+                        .where(post.id.eq(id))))
+                .execute();
+        return updated;
+    }
+
+    @Override
+    public long deleteWithContent(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        QPost post = QPost.post;
+
+        // content_id 는 post 컬럼이라 post_content 를 join 하지 않는다
+        List<Long> contentIds = jpaQueryFactory
+                .select(post.content.id)
+                .from(post)
+                .where(post.id.in(ids))
+                .fetch();
+        if (contentIds.isEmpty()) {
+            return 0;
+        }
+
+        long deleted = jpaQueryFactory.delete(post)
+                .where(post.id.in(ids))
+                .execute();
+        jpaQueryFactory.delete(QPostContent.postContent)
+                .where(QPostContent.postContent.id.in(contentIds))
+                .execute();
+        return deleted;
+    }
+
+    @Override
+    public List<Long> findIdsBetween(Long fromId, Long toId, int limit) {
+        QPost post = QPost.post;
+
+        return jpaQueryFactory
+                .select(post.id)
+                .from(post)
+                .where(post.id.between(fromId, toId))
+                .orderBy(post.id.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    @Override
+    public Stream<Post> streamAll() {
+        return jpaQueryFactory.selectFrom(QPost.post)
+                .join(QPost.post.content).fetchJoin()
+                .setHint(QueryHints.FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(QueryHints.READ_ONLY, true)
+                .orderBy(QPost.post.id.asc())
+                .stream()
+                .peek(entityManager::detach);
+    }
+
+    private JPAQuery<PostSummaryResponse> selectSummary() {
+        QPost post = QPost.post;
+
+        return jpaQueryFactory
+                .select(Projections.constructor(PostSummaryResponse.class,
+                        post.id,
+                        post.title,
+                        post.excerpt,
+                        post.version))
+                .from(post);
+    }
 }
@@ -1,12 +1,43 @@
 package com.myblog.api.repository;
 
 import com.myblog.api.domain.Session;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface SessionRepository extends CrudRepository<Session, Long> {
 
-    Optional<Session> findByAccessToken(String accessToken);
+    /**
+     * 만료되지 않은 세션의 userId, expiresAt 만 조회 - users 를 join 하지 않는다 (user_id 컬럼)
+     */
+    @Query("select s.user.id as userId, s.expiresAt as expiresAt from Session s"
+            + " where s.accessToken = :accessToken and s.expiresAt > :now")
+    Optional<ActiveSession> findActive(@Param("accessToken") String accessToken, @Param("now") LocalDateTime now);
 
+    @Query("select s.id from Session s where s.expiresAt <= :now order by s.id")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Session s where s.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Session s where s.accessToken = :accessToken")
+    int deleteByAccessToken(@Param("accessToken") String accessToken);
+
+    interface ActiveSession {
+        Long getUserId();
+
+        LocalDateTime getExpiresAt();
+    }
 }
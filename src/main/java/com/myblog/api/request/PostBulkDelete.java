@@ -0,0 +1,57 @@
+package com.myblog.api.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.myblog.api.exception.InvalidRequest;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * 글 대량 삭제 - ids 또는 id 범위(fromId ~ toId, 양 끝 포함) 중 하나만 받는다.
+ */
+@ToString
+@Setter @Getter
+public class PostBulkDelete {
+
+    private List<Long> ids;
+
+    private Long fromId;
+
+    private Long toId;
+
+    public PostBulkDelete() {
+    }
+
+    @Builder
+    public PostBulkDelete(List<Long> ids, Long fromId, Long toId) {
+        this.ids = ids;
+        this.fromId = fromId;
+        this.toId = toId;
+    }
+
+    @JsonIgnore
+    public boolean isRange() {
+        return ids == null;
+    }
+
+    public void validate() {
+        if (ids != null) {
+            if (fromId != null || toId != null) {
+                throw new InvalidRequest("ids", "ids 와 id 범위는 함께 사용할 수 없습니다.");
+            }
+            if (ids.contains(null)) {
+                throw new InvalidRequest("ids", "id 는 비어 있을 수 없습니다.");
+            }
+            return;
+        }
+        if (fromId == null || toId == null) {
+            throw new InvalidRequest("ids", "ids 또는 fromId, toId 를 입력하세요.");
+        }
+        if (fromId > toId) {
+            throw new InvalidRequest("fromId", "fromId 는 toId 보다 클 수 없습니다.");
+        }
+    }
+}
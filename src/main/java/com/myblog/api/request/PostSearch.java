@@ -1,9 +1,13 @@
 package com.myblog.api.request;
 
+import com.myblog.api.exception.InvalidRequest;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
 @Getter @Setter
 @Builder
 public class PostSearch {
@@ -15,13 +19,54 @@ public class PostSearch {
     @Builder.Default
     private Integer size = 5;
 
-    private PostSearch(Integer page, Integer size) {
+    /**
+     * 커서 페이징 - 이전 응답의 next cursor 값
+     * 값이 있으면 page 는 무시하고 id < cursor 로 탐색한다.
+     */
+    private String after;
+
+    /**
+     * 검색어 - 값이 있으면 제목/본문 검색 결과를 관련도 순으로 페이징한다.
+     */
+    private String q;
+
+    private PostSearch(Integer page, Integer size, String after, String q) {
         this.page = ( page != null ? page : 1 );
         this.size = ( size != null ? size : 5 );
+        this.after = after;
+        this.q = q;
     }
 
     public long getOffset() {
-        return (long) (Math.max(1, page) - 1) * Math.min(size, MAX_SIZE);
+        return (long) (Math.max(1, page) - 1) * getLimit();
+    }
+
+    public int getLimit() {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    public boolean isCursorMode() {
+        return !hasQuery() && after != null && !after.isBlank();
+    }
+
+    public boolean hasQuery() {
+        return q != null && !q.isBlank();
     }
 
+    public Long getCursorId() {
+        if (!isCursorMode()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+            return Long.parseLong(decoded);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequest("after", "잘못된 커서입니다.");
+        }
+    }
+
+    public static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
 }
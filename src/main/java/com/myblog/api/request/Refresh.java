@@ -0,0 +1,27 @@
+package com.myblog.api.request;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.validation.constraints.NotBlank;
+
+/**
+ * 액세스 토큰 재발급, 로그아웃 요청
+ */
+@ToString
+@Setter @Getter
+public class Refresh {
+
+    @NotBlank(message = "refresh token 을 입력해주세요.")
+    private String refreshToken;
+
+    public Refresh() {
+    }
+
+    @Builder
+    public Refresh(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -0,0 +1,18 @@
+package com.myblog.api.response;
+
+import lombok.Getter;
+
+/**
+ * {
+ *      "deleted": 1200
+ * }
+ */
+@Getter
+public class BulkDeleteResponse {
+
+    private long deleted;
+
+    public void deleted(long count) {
+        deleted += count;
+    }
+}
@@ -0,0 +1,61 @@
+package com.myblog.api.response;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {
+ *      "total": 3,
+ *      "succeeded": 2,
+ *      "failed": 1,
+ *      "failures": [
+ *          { "index": 1, "message": "잘못된 요청입니다.", "validation": { "title": "타이틀을 입력하세요." } }
+ *      ]
+ * }
+ */
+@Getter
+public class BulkImportResponse {
+
+    private int succeeded;
+    private int failed;
+    private final List<Failure> failures = new ArrayList<>();
+
+    @Getter(AccessLevel.NONE)
+    private final int maxReportedFailures;
+
+    public BulkImportResponse(int maxReportedFailures) {
+        this.maxReportedFailures = maxReportedFailures;
+    }
+
+    public int getTotal() {
+        return succeeded + failed;
+    }
+
+    public void succeeded(int count) {
+        succeeded += count;
+    }
+
+    public void failed(int index, String message, Map<String, String> validation) {
+        failed++;
+        if (failures.size() < maxReportedFailures) {
+            failures.add(new Failure(index, message, validation));
+        }
+    }
+
+    @Getter
+    public static class Failure {
+        private final int index;
+        private final String message;
+        private final Map<String, String> validation;
+
+        public Failure(int index, String message, Map<String, String> validation) {
+            this.index = index;
+            this.message = message;
+            this.validation = validation;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.myblog.api.response;
+
+import com.myblog.api.cache.PostJson;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 글 단건 응답 본문 - 직렬화해 둔 PostJson 에 이번 요청의 조회수와 gzip 여부를 붙인 것
+ * PostJsonBodyConverter 가 Jackson 을 거치지 않고 바이트를 그대로 쓴다.
+ */
+@Getter
+public class PostJsonBody {
+
+    private final PostJson json;
+    private final long views;
+    private final boolean gzip;
+
+    public PostJsonBody(PostJson json, long views, boolean gzip) {
+        this.json = json;
+        this.views = views;
+        this.gzip = gzip;
+    }
+
+    public long contentLength() {
+        return json.contentLength(views, gzip);
+    }
+
+    public void write(OutputStream out) throws IOException {
+        json.write(out, views, gzip);
+    }
+}
@@ -0,0 +1,31 @@
+package com.myblog.api.response;
+
+import com.myblog.api.request.PostSearch;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 글 목록 + 페이지 정보
+ * 본문(JSON)은 기존대로 목록 배열이고, 페이지 정보는 PostController 에서 헤더로 내려준다.
+ */
+@Getter
+public class PostPage {
+
+    private final List<PostSummaryResponse> posts;
+    private final long total;
+    private final long totalPages;
+    private final boolean hasNext;
+
+    public PostPage(List<PostSummaryResponse> posts, long total, PostSearch postSearch) {
+        int limit = postSearch.getLimit();
+
+        this.posts = posts;
+        this.total = total;
+        this.totalPages = (total + limit - 1) / limit;
+        // 커서 페이징은 현재 위치의 page 번호를 알 수 없으므로 꽉 찬 페이지면 다음이 있다고 본다 (X-Next-Cursor 와 같은 기준)
+        this.hasNext = postSearch.isCursorMode()
+                ? posts.size() == limit
+                : Math.max(1, postSearch.getPage()) < totalPages;
+    }
+}
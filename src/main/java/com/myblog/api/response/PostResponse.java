@@ -1,30 +1,63 @@
 package com.myblog.api.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.myblog.api.domain.Post;
 import lombok.Builder;
 import lombok.Getter;
 
 /**
  * 서비스 정책에 맞는 클래스
+ * views 는 마지막 필드여야 한다 - PostJson 이 직렬화 결과의 끝에 조회수만 바꿔 붙인다
  */
 @Getter
+@JsonPropertyOrder({"id", "title", "content", "views"})
 public class PostResponse {
 
     private Long id;
     private String title;
     private String content;
 
+    // 조회수는 ETag(version) 에 넣지 않는다 - 304 응답의 조회수는 조금 오래된 값일 수 있다
+    private long views;
+
+    // ETag 용 - 응답 본문에는 내리지 않는다
+    @JsonIgnore
+    private Long version;
+
+    // 캐시에 올린 시점의 PostViewCounter epoch - flush 가 조회수를 더할지 지울지 정한다
+    @JsonIgnore
+    private long viewEpoch;
+
     // 생성자 오버로딩
     public PostResponse(Post post) {
         this.id = post.getId();
         this.title = post.getTitle();
         this.content = post.getContent();
+        this.views = post.getViews();
+        this.version = post.getRevision();
     }
 
     @Builder
-    public PostResponse(Long id, String title, String content) {
+    public PostResponse(Long id, String title, String content, long views, Long version, long viewEpoch) {
         this.id = id;
         this.title = title.substring(0,Math.min(title.length(),10));
         this.content = content;
+        this.views = views;
+        this.version = version;
+        this.viewEpoch = viewEpoch;
+    }
+
+    private PostResponse(PostResponse response, long views) {
+        this.id = response.id;
+        this.title = response.title;
+        this.content = response.content;
+        this.views = views;
+        this.version = response.version;
+        this.viewEpoch = response.viewEpoch;
+    }
+
+    public PostResponse withViews(long views) {
+        return new PostResponse(this, views);
     }
 }
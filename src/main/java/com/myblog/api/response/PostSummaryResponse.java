@@ -0,0 +1,29 @@
+package com.myblog.api.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.myblog.api.domain.Post;
+import lombok.Getter;
+
+/**
+ * 글 목록 응답 - 본문 전체(@Lob) 대신 앞부분 일부(excerpt)만 내려준다.
+ */
+@Getter
+public class PostSummaryResponse {
+
+    public static final int EXCERPT_LENGTH = Post.EXCERPT_LENGTH;
+
+    private final Long id;
+    private final String title;
+    private final String excerpt;
+
+    // 목록 ETag 계산용
+    @JsonIgnore
+    private final Long version;
+
+    public PostSummaryResponse(Long id, String title, String excerpt, Long version) {
+        this.id = id;
+        this.title = title;
+        this.excerpt = excerpt;
+        this.version = version;
+    }
+}
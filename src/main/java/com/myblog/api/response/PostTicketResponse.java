@@ -0,0 +1,35 @@
+package com.myblog.api.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+
+/**
+ * write-behind 글 작성 접수 상태
+ * {
+ *      "ticket": "0b6f...",
+ *      "status": "DONE",
+ *      "postId": 12
+ * }
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PostTicketResponse {
+
+    public enum Status {
+        PENDING, DONE, FAILED
+    }
+
+    private final String ticket;
+    private final Status status;
+    private final Long postId;
+
+    public PostTicketResponse(String ticket, Status status, Long postId) {
+        this.ticket = ticket;
+        this.status = status;
+        this.postId = postId;
+    }
+
+    public static PostTicketResponse pending(String ticket) {
+        return new PostTicketResponse(ticket, Status.PENDING, null);
+    }
+}
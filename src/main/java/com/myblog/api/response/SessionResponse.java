@@ -1,13 +1,22 @@
 package com.myblog.api.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 
 @Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class SessionResponse {
 
     private final String accessToken;
 
+    private final String refreshToken;
+
     public SessionResponse(String accessToken) {
+        this(accessToken, null);
+    }
+
+    public SessionResponse(String accessToken, String refreshToken) {
         this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
     }
 }
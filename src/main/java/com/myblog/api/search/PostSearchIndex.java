@@ -0,0 +1,233 @@
+package com.myblog.api.search;
+
+import com.myblog.api.domain.Post;
+import com.myblog.api.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 글 제목/본문 역색인 (in-process)
+ * PostService 의 write/edit/delete 에서 증분으로 갱신하고, 기동시 post 테이블을 스트리밍으로 읽어 다시 만든다.
+ * 점수는 BM25, 제목에 나온 단어는 TITLE_WEIGHT 배로 센다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 3;
+
+    private final PostRepository postRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (postId -> 가중치 적용된 tf)
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private long totalLength;
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+
+            try (Stream<Post> posts = postRepository.streamAll()) {
+                posts.forEach(post -> add(post.getId(), new Document(post.getTitle(), post.getContent())));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("post search index rebuilt. documents={}, terms={}", documents.size(), postings.size());
+    }
+
+    public void put(Long id, String title, String content) {
+        afterCommit(() -> update(id, title, content));
+    }
+
+    public void remove(Long id) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public SearchHits search(String query, long offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(Tokenizer.tokenize(query));
+        if (terms.isEmpty()) {
+            return new SearchHits(0, List.of());
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return new SearchHits(0, List.of());
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            for (String term : terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                    int length = documents.get(entry.getKey()).length;
+                    double tf = entry.getValue();
+                    double score = idf * (tf * (K1 + 1)) / (tf + K1 * (1 - B + B * length / averageLength));
+                    scores.merge(entry.getKey(), score, Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> ids = scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .skip(offset)
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+
+        return new SearchHits(scores.size(), ids);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * null 인 필드는 기존 색인 내용을 유지한다. (PostEditor 와 같은 규칙)
+     */
+    private void update(Long id, String title, String content) {
+        lock.writeLock().lock();
+        try {
+            Document previous = delete(id);
+            Document document = previous == null
+                    ? new Document(title, content)
+                    : previous.edit(title, content);
+            add(id, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Long id, Document document) {
+        documents.put(id, document);
+        totalLength += document.length;
+        document.weights().forEach((term, weight) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(id, weight));
+    }
+
+    private Document delete(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return null;
+        }
+
+        totalLength -= document.length;
+        for (String term : document.weights().keySet()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        return document;
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+            return;
+        }
+        task.run();
+    }
+
+    private static class Document {
+        private final Map<String, Integer> title;
+        private final Map<String, Integer> content;
+        private final int length;
+
+        private Document(String title, String content) {
+            this(termFrequency(title), termFrequency(content));
+        }
+
+        private Document(Map<String, Integer> title, Map<String, Integer> content) {
+            this.title = title;
+            this.content = content;
+            this.length = sum(title) * TITLE_WEIGHT + sum(content);
+        }
+
+        private Document edit(String title, String content) {
+            return new Document(
+                    title != null ? termFrequency(title) : this.title,
+                    content != null ? termFrequency(content) : this.content);
+        }
+
+        private Map<String, Integer> weights() {
+            Map<String, Integer> weights = new HashMap<>(content);
+            title.forEach((term, count) -> weights.merge(term, count * TITLE_WEIGHT, Integer::sum));
+            return weights;
+        }
+
+        private static Map<String, Integer> termFrequency(String text) {
+            Map<String, Integer> frequency = new HashMap<>();
+            for (String token : Tokenizer.tokenize(text)) {
+                frequency.merge(token, 1, Integer::sum);
+            }
+            return frequency;
+        }
+
+        private static int sum(Map<String, Integer> frequency) {
+            int sum = 0;
+            for (int count : frequency.values()) {
+                sum += count;
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.myblog.api.search;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class SearchHits {
+
+    private final long total;
+    private final List<Long> ids;
+
+    public SearchHits(long total, List<Long> ids) {
+        this.total = total;
+        this.ids = ids;
+    }
+}
@@ -0,0 +1,64 @@
+package com.myblog.api.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 검색용 토크나이저
+ * 한글은 형태소 분석 대신 음절 bi-gram 으로 나눈다. ("블로그를" -> 블로, 로그, 그를)
+ * 조사가 붙어도 "블로그" 검색(블로, 로그)에 걸리고, 사전이 필요 없다.
+ * 그 외 문자/숫자는 단어 단위로 자르고 소문자로 맞춘다.
+ */
+public final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        int length = normalized.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = normalized.charAt(i);
+            int start = i;
+
+            if (isHangul(c)) {
+                while (i < length && isHangul(normalized.charAt(i))) {
+                    i++;
+                }
+                addBigrams(normalized, start, i, tokens);
+            } else if (Character.isLetterOrDigit(c)) {
+                while (i < length && Character.isLetterOrDigit(normalized.charAt(i)) && !isHangul(normalized.charAt(i))) {
+                    i++;
+                }
+                tokens.add(normalized.substring(start, i));
+            } else {
+                i++;
+            }
+        }
+
+        return tokens;
+    }
+
+    private static void addBigrams(String text, int start, int end, List<String> tokens) {
+        if (end - start == 1) {
+            tokens.add(text.substring(start, end));
+            return;
+        }
+        for (int i = start; i < end - 1; i++) {
+            tokens.add(text.substring(i, i + 2));
+        }
+    }
+
+    private static boolean isHangul(char c) {
+        return Character.UnicodeScript.of(c) == Character.UnicodeScript.HANGUL;
+    }
+}
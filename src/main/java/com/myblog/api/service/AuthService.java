@@ -1,5 +1,6 @@
 package com.myblog.api.service;
 
+import com.myblog.api.cache.EmailFilter;
 import com.myblog.api.crypto.PasswordEncoder;
 import com.myblog.api.crypto.ScryptPasswordEncoder;
 import com.myblog.api.domain.User;
@@ -8,18 +9,21 @@ import com.myblog.api.exception.InvalidSignInInformation;
 import com.myblog.api.repository.UserRepository;
 import com.myblog.api.request.Login;
 import com.myblog.api.request.Signup;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
-
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final EmailFilter emailFilter;
+    private final MeterRegistry meterRegistry;
 
     @Transactional
     public Long signin(Login login) {
@@ -35,10 +39,19 @@ public class AuthService {
         return user.getId();
     }
 
+    /**
+     * Bloom filter 가 처음 보는 이메일이라고 하면 조회 없이 바로 insert 한다.
+     * 동시에 같은 이메일로 가입하면 unique 인덱스 위반으로 한쪽만 성공한다.
+     */
     public void signup(Signup signup) {
-        Optional<User> userOptional = userRepository.findByEmail(signup.getEmail());
-        if (userOptional.isPresent()) {
-            throw new AlreadyExistsEmailException();
+        String email = signup.getEmail();
+        if (emailFilter.mightContain(email)) {
+            meterRegistry.counter("auth.signup.email.lookup", "result", "checked").increment();
+            if (userRepository.existsByEmail(email)) {
+                throw new AlreadyExistsEmailException();
+            }
+        } else {
+            meterRegistry.counter("auth.signup.email.lookup", "result", "skipped").increment();
         }
 
         String encryptedPassword = passwordEncoder.encrypt(signup.getPassword());
@@ -46,9 +59,26 @@ public class AuthService {
         User user = User.builder()
                 .name(signup.getName())
                 .password(encryptedPassword)
-                .email(signup.getEmail())
+                .email(email)
                 .build();
 
-        userRepository.save(user);
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateEmail(e)) {
+                emailFilter.put(email);
+                throw new AlreadyExistsEmailException();
+            }
+            throw e;
+        }
+        emailFilter.put(email);
+    }
+
+    private static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException)) {
+            return false;
+        }
+        String constraintName = ((ConstraintViolationException) e.getCause()).getConstraintName();
+        return constraintName != null && constraintName.toLowerCase().contains(User.EMAIL_INDEX);
     }
 }
@@ -0,0 +1,96 @@
+package com.myblog.api.service;
+
+import com.myblog.api.cache.PostCounter;
+import com.myblog.api.cache.PostJsonCache;
+import com.myblog.api.cache.PostResponseCache;
+import com.myblog.api.config.AppConfig;
+import com.myblog.api.repository.PostRepository;
+import com.myblog.api.request.PostBulkDelete;
+import com.myblog.api.response.BulkDeleteResponse;
+import com.myblog.api.search.PostSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * 글 대량 삭제
+ * batchSize 개씩 나눠서 chunk 마다 트랜잭션을 따로 커밋한다. 삭제 도중 한 트랜잭션이 긴 시간 락을 잡고 있지 않도록.
+ * 중간에 실패하면 그 전 chunk 까지는 삭제된 상태로 남는다.
+ */
+@Slf4j
+@Service
+public class PostBulkDeleteService {
+
+    private final PostRepository postRepository;
+    private final PostResponseCache postResponseCache;
+    private final PostJsonCache postJsonCache;
+    private final PostSearchIndex postSearchIndex;
+    private final PostCounter postCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final AppConfig.BulkDelete config;
+
+    public PostBulkDeleteService(PostRepository postRepository,
+                                 PostResponseCache postResponseCache,
+                                 PostJsonCache postJsonCache,
+                                 PostSearchIndex postSearchIndex,
+                                 PostCounter postCounter,
+                                 PlatformTransactionManager transactionManager,
+                                 AppConfig appConfig) {
+        this.postRepository = postRepository;
+        this.postResponseCache = postResponseCache;
+        this.postJsonCache = postJsonCache;
+        this.postSearchIndex = postSearchIndex;
+        this.postCounter = postCounter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.config = appConfig.getBulkDelete();
+    }
+
+    public BulkDeleteResponse delete(PostBulkDelete request) {
+        request.validate();
+
+        BulkDeleteResponse response = new BulkDeleteResponse();
+        int batchSize = config.getBatchSize();
+
+        if (request.isRange()) {
+            deleteRange(request.getFromId(), request.getToId(), batchSize, response);
+        } else {
+            List<Long> ids = request.getIds();
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                response.deleted(deleteChunk(ids.subList(from, Math.min(ids.size(), from + batchSize))));
+            }
+        }
+
+        log.info("bulk delete finished. deleted={}", response.getDeleted());
+        return response;
+    }
+
+    // 범위는 id 순으로 batchSize 개씩 끊어서 지운다 (비어 있는 구간은 건너뛴다)
+    private void deleteRange(long fromId, long toId, int batchSize, BulkDeleteResponse response) {
+        while (fromId <= toId) {
+            List<Long> ids = postRepository.findIdsBetween(fromId, toId, batchSize);
+            if (ids.isEmpty()) {
+                return;
+            }
+            response.deleted(deleteChunk(ids));
+            fromId = ids.get(ids.size() - 1) + 1;
+        }
+    }
+
+    private long deleteChunk(List<Long> ids) {
+        Long deleted = transactionTemplate.execute(status -> {
+            long count = postRepository.deleteWithContent(ids);
+            // 캐시, 색인, 글 수는 커밋 직후에 정리된다
+            for (Long id : ids) {
+                postResponseCache.evict(id);
+                postJsonCache.evict(id);
+                postSearchIndex.remove(id);
+            }
+            postCounter.add(-count);
+            return count;
+        });
+        return deleted == null ? 0 : deleted;
+    }
+}
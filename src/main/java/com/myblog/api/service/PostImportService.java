@@ -0,0 +1,159 @@
+package com.myblog.api.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myblog.api.cache.PostCounter;
+import com.myblog.api.config.AppConfig;
+import com.myblog.api.domain.Post;
+import com.myblog.api.exception.MyblogException;
+import com.myblog.api.request.PostCreate;
+import com.myblog.api.response.BulkImportResponse;
+import com.myblog.api.search.PostSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 글 대량 등록
+ * JSON 배열 / NDJSON 을 스트리밍으로 읽고, batchSize 개씩 트랜잭션 하나로 JDBC 배치 insert 후 flush/clear 한다.
+ * 잘못된 항목이나 실패한 배치는 응답에 기록하고 나머지는 계속 등록한다.
+ */
+@Slf4j
+@Service
+public class PostImportService {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PostSearchIndex postSearchIndex;
+    private final PostCounter postCounter;
+    private final AppConfig.BulkImport config;
+
+    public PostImportService(EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             PostSearchIndex postSearchIndex,
+                             PostCounter postCounter,
+                             AppConfig appConfig) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.postSearchIndex = postSearchIndex;
+        this.postCounter = postCounter;
+        this.config = appConfig.getBulkImport();
+    }
+
+    public BulkImportResponse importPosts(InputStream body) throws IOException {
+        BulkImportResponse response = new BulkImportResponse(config.getMaxReportedFailures());
+        List<Post> batch = new ArrayList<>(config.getBatchSize());
+        List<Integer> batchIndexes = new ArrayList<>(config.getBatchSize());
+
+        // 최상위가 배열이면 원소를, 아니면 줄 단위(NDJSON) 값을 하나씩 읽는다
+        try (MappingIterator<PostCreate> items = objectMapper.readerFor(PostCreate.class).readValues(body)) {
+            int index = 0;
+            while (true) {
+                PostCreate postCreate;
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    postCreate = items.nextValue();
+                } catch (JsonParseException e) {
+                    // 문법 오류 이후는 어디서 다시 읽어야 할지 알 수 없으므로 중단
+                    response.failed(index, "JSON 형식이 올바르지 않습니다.", null);
+                    break;
+                } catch (JsonMappingException e) {
+                    response.failed(index++, "잘못된 요청입니다.", null);
+                    continue;
+                }
+
+                Map<String, String> validation = validate(postCreate);
+                if (!validation.isEmpty()) {
+                    response.failed(index++, "잘못된 요청입니다.", validation);
+                    continue;
+                }
+
+                batch.add(Post.builder()
+                        .title(postCreate.getTitle())
+                        .content(postCreate.getContent())
+                        .build());
+                batchIndexes.add(index++);
+
+                if (batch.size() == config.getBatchSize()) {
+                    insert(batch, batchIndexes, response);
+                }
+            }
+        }
+
+        insert(batch, batchIndexes, response);
+        return response;
+    }
+
+    private Map<String, String> validate(PostCreate postCreate) {
+        Map<String, String> validation = new LinkedHashMap<>();
+
+        Set<ConstraintViolation<PostCreate>> violations = validator.validate(postCreate);
+        for (ConstraintViolation<PostCreate> violation : violations) {
+            validation.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        if (!validation.isEmpty()) {
+            return validation;
+        }
+
+        try {
+            postCreate.validate();
+        } catch (MyblogException e) {
+            validation.putAll(e.getValidation());
+        }
+        return validation;
+    }
+
+    private void insert(List<Post> batch, List<Integer> batchIndexes, BulkImportResponse response) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(config.getBatchSize());
+                for (Post post : batch) {
+                    entityManager.persist(post);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+
+            response.succeeded(batch.size());
+            postCounter.add(batch.size());
+            for (Post post : batch) {
+                postSearchIndex.put(post.getId(), post.getTitle(), post.getContent());
+            }
+        } catch (RuntimeException e) {
+            log.warn("bulk import batch failed. size={}", batch.size(), e);
+            for (Integer index : batchIndexes) {
+                response.failed(index, "저장에 실패했습니다.", null);
+            }
+        }
+
+        batch.clear();
+        batchIndexes.clear();
+    }
+}
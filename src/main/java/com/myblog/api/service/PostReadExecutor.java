@@ -0,0 +1,113 @@
+package com.myblog.api.service;
+
+import com.myblog.api.datasource.ReadYourWrites;
+import com.myblog.api.exception.PostReadBusy;
+import com.myblog.api.exception.PostReadTimeout;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 비동기 조회 전용 스레드 풀 (myblog.async-read.enabled=true 일 때)
+ * JDBC 를 기다리는 동안 톰캣 요청 스레드를 돌려주기 위해 조회를 이 풀에서 실행한다.
+ * 스레드 수는 커넥션 풀 크기에 맞춰서 커넥션을 기다리며 노는 스레드가 없게 하고,
+ * 큐가 가득 차면 PostReadBusy, timeout 을 넘기면 PostReadTimeout (둘 다 503) 으로 끝낸다.
+ */
+public class PostReadExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+    private final Counter timedOut;
+
+    // "name operation" -> Timer (태그 조합마다 한번만 등록)
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public PostReadExecutor(int threads, int queueCapacity, Duration timeout, MeterRegistry meterRegistry) {
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "post-read-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = timeout;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("posts.read.queue", executor, e -> e.getQueue().size())
+                .description("비동기 조회 대기 중인 요청 수")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("posts.read.rejected")
+                .description("큐가 가득 차서 거절된 조회 수")
+                .register(meterRegistry);
+        this.timedOut = Counter.builder("posts.read.timeout")
+                .description("제한 시간을 넘긴 조회 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 큐 대기 시간까지 포함해서 timeout 을 센다.
+     * timeout 이 나도 이미 실행 중인 쿼리를 끊지는 않는다. (응답만 먼저 보낸다)
+     */
+    public <T> CompletableFuture<T> submit(String operation, Supplier<T> task) {
+        long enqueuedAt = System.nanoTime();
+        // 요청 스레드의 read-your-writes 상태를 조회 스레드로 넘긴다
+        ReadYourWrites client = ReadYourWrites.current();
+
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> {
+                long startedAt = System.nanoTime();
+                timer("posts.read.wait", operation).record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return ReadYourWrites.callAs(client, task);
+                } finally {
+                    timer("posts.read.time", operation).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PostReadBusy(e);
+        }
+
+        return future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        timedOut.increment();
+                        throw new PostReadTimeout(cause);
+                    }
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new CompletionException(cause);
+                });
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Timer timer(String name, String operation) {
+        return timers.computeIfAbsent(name + " " + operation, key -> Timer.builder(name)
+                .tag("operation", operation)
+                .register(meterRegistry));
+    }
+}
@@ -1,27 +1,68 @@
 package com.myblog.api.service;
 
+import com.myblog.api.cache.PostCounter;
+import com.myblog.api.cache.PostJson;
+import com.myblog.api.cache.PostJsonCache;
+import com.myblog.api.cache.PostResponseCache;
+import com.myblog.api.cache.PostViewCounter;
 import com.myblog.api.domain.Post;
 import com.myblog.api.domain.PostEditor;
+import com.myblog.api.exception.PostEditConflict;
 import com.myblog.api.exception.PostNotFound;
 import com.myblog.api.repository.PostRepository;
 import com.myblog.api.request.PostCreate;
 import com.myblog.api.request.PostEdit;
 import com.myblog.api.request.PostSearch;
+import com.myblog.api.response.PostPage;
 import com.myblog.api.response.PostResponse;
-import lombok.RequiredArgsConstructor;
+import com.myblog.api.response.PostSummaryResponse;
+import com.myblog.api.search.PostSearchIndex;
+import com.myblog.api.search.SearchHits;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class PostService {
 
     private final PostRepository postRepository;
+    private final PostResponseCache postResponseCache;
+    private final PostJsonCache postJsonCache;
+    private final PostSearchIndex postSearchIndex;
+    private final PostCounter postCounter;
+    private final PostViewCounter postViewCounter;
+
+    // 글 목록 조회로 가져온 행 수 (paging 태그별로 한번만 등록)
+    private final DistributionSummary cursorRows;
+    private final DistributionSummary offsetRows;
+
+    public PostService(PostRepository postRepository,
+                       PostResponseCache postResponseCache,
+                       PostJsonCache postJsonCache,
+                       PostSearchIndex postSearchIndex,
+                       PostCounter postCounter,
+                       PostViewCounter postViewCounter,
+                       MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.postResponseCache = postResponseCache;
+        this.postJsonCache = postJsonCache;
+        this.postSearchIndex = postSearchIndex;
+        this.postCounter = postCounter;
+        this.postViewCounter = postViewCounter;
+        this.cursorRows = listRows("cursor", meterRegistry);
+        this.offsetRows = listRows("offset", meterRegistry);
+    }
 
     public void write(PostCreate postCreate) {
         // postCreate -> Entity
@@ -31,9 +72,38 @@ public class PostService {
                 .build();
 
         postRepository.save(post);
+        postSearchIndex.put(post.getId(), post.getTitle(), post.getContent());
+        postCounter.add(1);
     }
 
+    // findById 는 Spring Data 기본 readOnly 트랜잭션이라 replica 라우팅 대상이다
     public PostResponse get(Long id) {
+        PostResponse response = postResponseCache.get(id, this::load);
+
+        // 조회수는 메모리에만 더하고, 아직 DB 에 보내지 않은 만큼을 붙여서 응답한다
+        postViewCounter.increment(id);
+        return response.withViews(response.getViews() + postViewCounter.pending(id));
+    }
+
+    /**
+     * 직렬화해 둔 JSON 으로 단건 조회 - 조회수는 쓰기 직전에 view(json) 로 받아서 붙인다.
+     * PostResponseCache 와 따로 들고 있으므로 같은 글을 두 캐시에 두번 올리지 않는다. (loader 는 DB 에서 바로 읽음)
+     */
+    public PostJson getJson(Long id) {
+        return postJsonCache.get(id, this::load);
+    }
+
+    /**
+     * 조회수 1 증가 후 응답에 붙일 조회수
+     */
+    public long view(PostJson json) {
+        postViewCounter.increment(json.getId());
+        return json.getViews() + postViewCounter.pending(json.getId());
+    }
+
+    private PostResponse load(Long id) {
+        // 읽는 동안 조회수 flush 가 겹쳤는지 알 수 있게 읽기 전에 epoch 를 받아 둔다
+        long viewEpoch = postViewCounter.epoch();
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new PostNotFound());
         // 글이 없을시 예외 던짐
@@ -42,38 +112,116 @@ public class PostService {
                 .id(post.getId())
                 .title(post.getTitle())
                 .content(post.getContent())
+                .views(post.getViews())
+                .version(post.getRevision())
+                .viewEpoch(postViewCounter.loadedEpoch(viewEpoch))
                 .build();
 
         return response;
     }
 
+    /**
+     * 조건부 GET 용 version - 캐시에 있으면 캐시 값, 없으면 version 컬럼만 조회한다. (본문은 읽지 않음)
+     * 값은 PostResponse.version 과 같은 revision (글 version + 본문 version)
+     */
+    @Transactional(readOnly = true)
+    public Long getVersion(Long id) {
+        PostJson json = postJsonCache.getIfPresent(id);
+        if (json != null) {
+            return json.getVersion();
+        }
+        PostResponse cached = postResponseCache.getIfPresent(id);
+        if (cached != null) {
+            return cached.getVersion();
+        }
+        return postRepository.findRevision(id)
+                .orElseThrow(() -> new PostNotFound());
+    }
+
+
+    @Transactional(readOnly = true)
+    public List<PostSummaryResponse> getList(PostSearch postSearch) {
+        return getPage(postSearch).getPosts();
+    }
+
+    /**
+     * 목록 + 전체 개수. 전체 개수는 PostCounter 값(검색이면 색인의 검색 결과 수)이라 count(*) 를 하지 않는다.
+     */
+    @Transactional(readOnly = true)
+    public PostPage getPage(PostSearch postSearch) {
+        if (postSearch.hasQuery()) {
+            return search(postSearch);
+        }
+        List<PostSummaryResponse> posts = postRepository.getList(postSearch);
+        (postSearch.isCursorMode() ? cursorRows : offsetRows).record(posts.size());
+        return new PostPage(posts, postCounter.get(), postSearch);
+    }
+
+    // 검색 결과는 색인의 관련도 순서를 그대로 유지
+    private PostPage search(PostSearch postSearch) {
+        SearchHits hits = postSearchIndex.search(postSearch.getQ(), postSearch.getOffset(), postSearch.getLimit());
 
-    public List<PostResponse> getList(PostSearch postSearch) {
-        return postRepository.getList(postSearch).stream()
-                .map(post -> new PostResponse(post))
+        Map<Long, PostSummaryResponse> summaries = postRepository.getListByIds(hits.getIds()).stream()
+                .collect(Collectors.toMap(PostSummaryResponse::getId, Function.identity()));
+
+        List<PostSummaryResponse> posts = hits.getIds().stream()
+                .map(summaries::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        return new PostPage(posts, hits.getTotal(), postSearch);
+    }
+
+    /**
+     * 전체 글 내보내기 - 한 건씩 읽어서 바로 넘기므로 테이블 크기와 상관없이 메모리 사용량이 일정하다.
+     */
+    @Transactional(readOnly = true)
+    public void export(Consumer<PostResponse> consumer) {
+        try (Stream<Post> posts = postRepository.streamAll()) {
+            posts.map(PostResponse::new)
+                    .forEach(consumer);
+        }
     }
 
     // 변경된 내용을 응답으로 달라고 할 때도 있음 그러면 PostResponse 으로 리턴하면 됨
     @Transactional
     public void edit(Long id, PostEdit postEdit) {
-        Post post = postRepository.findById(id)
-                .orElseThrow(() -> new PostNotFound());
-
-
-        PostEditor.PostEditorBuilder editorBuilder = post.toEditor();
-
-        PostEditor postEditor = editorBuilder.title(postEdit.getTitle())
+        // 엔티티를 읽지 않고 version 만 읽은 뒤 update 문으로 바로 반영 - null 인 필드는 그대로 둔다 (PostEditor 규칙)
+        PostEditor postEditor = PostEditor.builder()
+                .title(postEdit.getTitle())
                 .content(postEdit.getContent())
                 .build();
 
-        post.edit(postEditor);
+        Long version = postRepository.findVersion(id)
+                .orElseThrow(PostNotFound::new);
+        if (postRepository.update(id, version, postEditor) == 0) {
+            // 읽은 뒤에 다른 요청이 먼저 수정했거나 삭제했다
+            if (postRepository.findVersion(id).isEmpty()) {
+                throw new PostNotFound();
+            }
+            throw new PostEditConflict();
+        }
+
+        postResponseCache.evict(id);
+        postJsonCache.evict(id);
+        postSearchIndex.put(id, postEdit.getTitle(), postEdit.getContent());
     }
     
+    @Transactional
     public void delete(Long id) {
-        Post post = postRepository.findById(id)
-                .orElseThrow(() -> new PostNotFound());
+        if (postRepository.deleteWithContent(List.of(id)) == 0) {
+            throw new PostNotFound();
+        }
+
+        postResponseCache.evict(id);
+        postJsonCache.evict(id);
+        postSearchIndex.remove(id);
+        postCounter.add(-1);
+    }
 
-        postRepository.delete(post);
+    private static DistributionSummary listRows(String paging, MeterRegistry meterRegistry) {
+        return DistributionSummary.builder("posts.list.rows")
+                .description("글 목록 조회로 가져온 행 수")
+                .tag("paging", paging)
+                .register(meterRegistry);
     }
 }
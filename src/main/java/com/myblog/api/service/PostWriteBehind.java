@@ -0,0 +1,474 @@
+package com.myblog.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.myblog.api.cache.PostCounter;
+import com.myblog.api.config.AppConfig;
+import com.myblog.api.domain.Post;
+import com.myblog.api.exception.PostWriteBusy;
+import com.myblog.api.request.PostCreate;
+import com.myblog.api.response.PostTicketResponse;
+import com.myblog.api.search.PostSearchIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 글 작성 write-behind (myblog.write-behind.enabled=true 일 때)
+ * 작성 요청은 journal 에 한 줄 남기고 큐에 넣은 뒤 접수 번호(ticket) 만 돌려준다.
+ * writer 스레드가 batchSize 개가 모이거나 maxDelay 가 지나면 트랜잭션 하나로 묶어서 커밋한다. (group commit)
+ * 커밋하면 journal 에 done 을 남기고, 남은 글이 없으면 journal 을 비운다.
+ * 기동할 때 done 이 없는 글을 다시 큐에 넣으므로 접수된 글은 프로세스가 죽어도 없어지지 않는다.
+ * 커밋과 done 기록 사이에 죽으면 같은 글이 한번 더 들어갈 수 있다. (at-least-once)
+ * journal fsync 도 묶어서 한다. 쓰기만 journalLock 안에서 하고, fsync 는 락 밖에서 한 스레드가
+ * 그때까지 쓴 줄을 한번에 하고 기다리던 요청들을 깨운다.
+ */
+@Slf4j
+public class PostWriteBehind {
+
+    private static final String POST = "post";
+    private static final String DONE = "done";
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final PostSearchIndex postSearchIndex;
+    private final PostCounter postCounter;
+    private final ObjectMapper objectMapper;
+    private final AppConfig.WriteBehind config;
+    private final Path journalPath;
+
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    // 큐에 있거나 커밋 중인 글 수 - queueCapacity 를 넘으면 접수하지 않는다
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Cache<String, PostTicketResponse> tickets;
+
+    private final Object journalLock = new Object();
+    private FileChannel journal;
+    // journal 에 있고 아직 done 이 없는 글 수 (journalLock)
+    private int pending;
+    // journal 에 쓴 줄 번호, fsync 가 끝난 줄 번호, fsync 진행 중 여부 (journalLock)
+    private long written;
+    private long forced;
+    private boolean forcing;
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final Counter rejected;
+    private final Counter failed;
+    private final Counter fsyncs;
+    private final Timer commitTime;
+    private final DistributionSummary batchSizes;
+
+    public PostWriteBehind(EntityManager entityManager,
+                           PlatformTransactionManager transactionManager,
+                           PostSearchIndex postSearchIndex,
+                           PostCounter postCounter,
+                           ObjectMapper objectMapper,
+                           AppConfig.WriteBehind config,
+                           MeterRegistry meterRegistry) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.postSearchIndex = postSearchIndex;
+        this.postCounter = postCounter;
+        this.objectMapper = objectMapper;
+        this.config = config;
+        this.journalPath = Path.of(config.getJournal());
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(config.getTicketCacheSize())
+                .expireAfterWrite(config.getTicketRetention())
+                .build();
+        this.writer = new Thread(this::run, "post-write-behind");
+        this.writer.setDaemon(true);
+
+        Gauge.builder("posts.write.queue", queued, AtomicInteger::get)
+                .description("커밋을 기다리는 글 수")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("posts.write.rejected")
+                .description("큐가 가득 차서 거절된 글 수")
+                .register(meterRegistry);
+        this.failed = Counter.builder("posts.write.failed")
+                .description("저장하지 못한 글 수")
+                .register(meterRegistry);
+        this.fsyncs = Counter.builder("posts.write.journal.fsync")
+                .description("journal fsync 횟수")
+                .register(meterRegistry);
+        this.commitTime = Timer.builder("posts.write.commit")
+                .description("묶음 하나를 커밋하는 시간")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("posts.write.batch.size")
+                .description("한번에 커밋한 글 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * journal 에서 done 이 없는 글을 다시 큐에 넣고 writer 를 시작한다.
+     */
+    public void start() {
+        List<Entry> replayed;
+        try {
+            replayed = replay();
+            compact(replayed);
+            journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            journal.position(journal.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        synchronized (journalLock) {
+            pending = replayed.size();
+        }
+        for (Entry entry : replayed) {
+            tickets.put(entry.ticket, PostTicketResponse.pending(entry.ticket));
+            queued.incrementAndGet();
+            queue.add(entry);
+        }
+        if (!replayed.isEmpty()) {
+            log.info("write-behind journal replayed. posts={}", replayed.size());
+        }
+
+        writer.start();
+    }
+
+    /**
+     * 새 접수를 막고 큐에 남은 글을 shutdownTimeout 동안 커밋한다. 못 끝낸 글은 journal 에 남아 다음 기동에 들어간다.
+     */
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(config.getShutdownTimeout().toMillis());
+        writer.interrupt();
+        synchronized (journalLock) {
+            try {
+                if (journal != null) {
+                    journal.close();
+                }
+            } catch (IOException e) {
+                log.warn("write-behind journal close failed", e);
+            }
+        }
+    }
+
+    /**
+     * journal 에 남긴 뒤 큐에 넣는다. 큐가 가득 차면 PostWriteBusy (503)
+     */
+    public String submit(PostCreate postCreate) {
+        if (!running) {
+            throw new PostWriteBusy();
+        }
+        if (queued.incrementAndGet() > config.getQueueCapacity()) {
+            queued.decrementAndGet();
+            rejected.increment();
+            throw new PostWriteBusy();
+        }
+
+        Entry entry = new Entry(UUID.randomUUID().toString(), postCreate.getTitle(), postCreate.getContent());
+        byte[] line = line(postRecord(entry));
+        long seq;
+        try {
+            synchronized (journalLock) {
+                seq = append(line);
+                pending++;
+            }
+        } catch (IOException e) {
+            queued.decrementAndGet();
+            throw new UncheckedIOException(e);
+        }
+        try {
+            sync(seq);
+        } catch (IOException e) {
+            synchronized (journalLock) {
+                pending--;
+            }
+            queued.decrementAndGet();
+            throw new UncheckedIOException(e);
+        }
+
+        tickets.put(entry.ticket, PostTicketResponse.pending(entry.ticket));
+        queue.add(entry);
+        return entry.ticket;
+    }
+
+    public Optional<PostTicketResponse> find(String ticket) {
+        return Optional.ofNullable(tickets.getIfPresent(ticket));
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(config.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // 첫 글부터 maxDelay 까지만 더 모은다
+                long deadline = System.nanoTime() + config.getMaxDelay().toNanos();
+                while (batch.size() < config.getBatchSize()) {
+                    if (queue.drainTo(batch, config.getBatchSize() - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Entry next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("write-behind writer failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 묶음 전체를 한 트랜잭션으로 넣고, 실패하면 한 건씩 다시 넣어서 실패한 글만 FAILED 로 남긴다.
+     */
+    private void commit(List<Entry> batch) {
+        long startedAt = System.nanoTime();
+        try {
+            done(batch, insert(batch));
+        } catch (RuntimeException e) {
+            log.warn("write-behind batch failed, retrying one by one. size={}", batch.size(), e);
+            for (Entry entry : batch) {
+                try {
+                    done(List.of(entry), insert(List.of(entry)));
+                } catch (RuntimeException ex) {
+                    log.error("write-behind post failed. ticket={}", entry.ticket, ex);
+                    failed.increment();
+                    done(List.of(entry), null);
+                }
+            }
+        } finally {
+            queued.addAndGet(-batch.size());
+            commitTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+        }
+    }
+
+    private List<Post> insert(List<Entry> entries) {
+        return transactionTemplate.execute(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(config.getBatchSize());
+            List<Post> posts = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                Post post = Post.builder()
+                        .title(entry.title)
+                        .content(entry.content)
+                        .build();
+                entityManager.persist(post);
+                posts.add(post);
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return posts;
+        });
+    }
+
+    // posts 가 null 이면 실패
+    private void done(List<Entry> entries, List<Post> posts) {
+        ArrayNode doneTickets = objectMapper.createArrayNode();
+        entries.forEach(entry -> doneTickets.add(entry.ticket));
+        byte[] line = line(objectMapper.createObjectNode().put("type", DONE).set("tickets", doneTickets));
+        try {
+            long seq;
+            synchronized (journalLock) {
+                seq = append(line);
+                pending -= entries.size();
+                if (pending == 0) {
+                    journal.truncate(0);
+                }
+            }
+            sync(seq);
+        } catch (IOException e) {
+            // 다음 기동 때 한번 더 들어갈 수 있다
+            log.error("write-behind journal write failed", e);
+        }
+
+        if (posts == null) {
+            entries.forEach(entry -> tickets.put(entry.ticket,
+                    new PostTicketResponse(entry.ticket, PostTicketResponse.Status.FAILED, null)));
+            return;
+        }
+
+        postCounter.add(posts.size());
+        for (int i = 0; i < posts.size(); i++) {
+            Post post = posts.get(i);
+            postSearchIndex.put(post.getId(), post.getTitle(), post.getContent());
+            tickets.put(entries.get(i).ticket,
+                    new PostTicketResponse(entries.get(i).ticket, PostTicketResponse.Status.DONE, post.getId()));
+        }
+    }
+
+    private List<Entry> replay() throws IOException {
+        if (!Files.exists(journalPath)) {
+            return List.of();
+        }
+
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonNode record;
+                try {
+                    record = objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    // 쓰다가 죽은 마지막 줄 - 이 글은 접수 응답이 나가지 않았다
+                    log.warn("write-behind journal has a broken line. ignored from here");
+                    break;
+                }
+
+                String type = record.path("type").asText();
+                if (POST.equals(type)) {
+                    Entry entry = new Entry(record.path("ticket").asText(),
+                            record.path("title").asText(null),
+                            record.path("content").asText(null));
+                    entries.put(entry.ticket, entry);
+                } else if (DONE.equals(type)) {
+                    record.path("tickets").forEach(ticket -> entries.remove(ticket.asText()));
+                }
+            }
+        }
+        return new ArrayList<>(entries.values());
+    }
+
+    // 남은 글만 새 파일에 쓰고 바꿔 끼운다 (중간에 죽어도 기존 journal 은 그대로)
+    private void compact(List<Entry> entries) throws IOException {
+        Path compacted = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(compacted,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Entry entry : entries) {
+                write(channel, line(postRecord(entry)));
+            }
+            channel.force(true);
+        }
+        Files.move(compacted, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // journalLock 안에서 부른다. 쓴 줄 번호를 돌려준다 - sync 에 넘긴다
+    private long append(byte[] line) throws IOException {
+        write(journal, line);
+        return ++written;
+    }
+
+    /**
+     * seq 번째 줄까지 fsync 될 때까지 기다린다. 진행 중인 fsync 가 없으면 이 스레드가 지금까지 쓴 줄을 모두 fsync 하고,
+     * 있으면 끝나기를 기다렸다가 아직 안 된 줄이 남았으면 다음 fsync 를 한다. (group commit)
+     */
+    private void sync(long seq) throws IOException {
+        if (!config.isFsync()) {
+            return;
+        }
+
+        long target;
+        synchronized (journalLock) {
+            while (forced < seq && forcing) {
+                try {
+                    journalLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+            if (forced >= seq) {
+                return;
+            }
+            forcing = true;
+            target = written;
+        }
+
+        boolean synced = false;
+        try {
+            journal.force(false);
+            fsyncs.increment();
+            synced = true;
+        } finally {
+            synchronized (journalLock) {
+                if (synced) {
+                    forced = Math.max(forced, target);
+                }
+                forcing = false;
+                journalLock.notifyAll();
+            }
+        }
+    }
+
+    private static void write(FileChannel channel, byte[] line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private byte[] line(JsonNode record) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(record);
+            byte[] line = Arrays.copyOf(json, json.length + 1);
+            line[json.length] = '\n';
+            return line;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ObjectNode postRecord(Entry entry) {
+        return objectMapper.createObjectNode()
+                .put("type", POST)
+                .put("ticket", entry.ticket)
+                .put("title", entry.title)
+                .put("content", entry.content);
+    }
+
+    private static class Entry {
+        private final String ticket;
+        private final String title;
+        private final String content;
+
+        private Entry(String ticket, String title, String content) {
+            this.ticket = ticket;
+            this.title = title;
+            this.content = content;
+        }
+    }
+}
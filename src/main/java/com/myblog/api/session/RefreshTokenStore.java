@@ -0,0 +1,257 @@
+package com.myblog.api.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.myblog.api.config.AppConfig;
+import com.myblog.api.domain.RefreshToken;
+import com.myblog.api.exception.Unauthorized;
+import com.myblog.api.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * refresh token 저장소
+ * 토큰 원문은 발급할 때 한번만 돌려주고 DB 에는 SHA-256 해시만 남긴다.
+ * 재발급(rotate)은 HMAC 서명만 하면 되는 JWT 액세스 토큰과 새 refresh token 을 주고, 비밀번호 해시는 돌리지 않는다. (세션 행은 만들지 않음)
+ * 이미 쓴 토큰이 다시 오면 탈취로 보고 같은 family 를 모두 폐기한다.
+ * 폐기된 family 는 메모리에 들고 있어서 DB 를 보지 않고 거절한다.
+ */
+@Slf4j
+@Component
+public class RefreshTokenStore {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final AppConfig.RefreshToken config;
+    private final MeterRegistry meterRegistry;
+
+    // 토큰 해시 -> 아직 쓰지 않은 토큰 정보 (쓰면 바로 뺀다)
+    private final Cache<String, TokenState> tokens;
+
+    // 폐기된 family id (토큰 수명 동안 보관)
+    private final Cache<String, Boolean> revokedFamilies;
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "refresh-token-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RefreshTokenStore(RefreshTokenRepository refreshTokenRepository,
+                             AppConfig appConfig,
+                             MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.config = appConfig.getRefreshToken();
+        this.meterRegistry = meterRegistry;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(config.getCacheSize())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+        this.revokedFamilies = Caffeine.newBuilder()
+                .maximumSize(config.getCacheSize())
+                .expireAfterWrite(config.getTtl())
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, "refresh.tokens");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = config.getSweepInterval().toMillis();
+        sweeper.scheduleWithFixedDelay(() -> {
+            try {
+                sweep();
+            } catch (RuntimeException e) {
+                log.warn("refresh token sweep failed", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * 로그인 - 새 family 로 발급
+     */
+    @Transactional
+    public Issued issue(Long userId) {
+        Issued issued = save(userId, UUID.randomUUID().toString());
+        count("issued");
+        return issued;
+    }
+
+    /**
+     * 토큰을 사용 처리하고 같은 family 로 새 토큰을 발급한다.
+     * 재사용이 걸렸을 때 family 폐기는 커밋되어야 하므로 Unauthorized 로는 롤백하지 않는다.
+     */
+    @Transactional(noRollbackFor = Unauthorized.class)
+    public Issued rotate(String refreshToken) {
+        String tokenHash = hash(refreshToken);
+        TokenState state = find(tokenHash).orElseThrow(() -> reject("invalid"));
+
+        if (state.revoked || revokedFamilies.getIfPresent(state.familyId) != null) {
+            tokens.invalidate(tokenHash);
+            throw reject("revoked");
+        }
+        if (state.used) {
+            revokeFamily(state.familyId);
+            throw reject("reused");
+        }
+        if (!state.expiresAt.isAfter(LocalDateTime.now())) {
+            tokens.invalidate(tokenHash);
+            throw reject("expired");
+        }
+
+        // 같은 토큰으로 동시에 들어오면 조건부 update 에서 한쪽만 성공한다
+        tokens.invalidate(tokenHash);
+        if (refreshTokenRepository.markUsed(state.id, LocalDateTime.now()) == 0) {
+            revokeFamily(state.familyId);
+            throw reject("reused");
+        }
+
+        Issued issued = save(state.userId, state.familyId);
+        count("rotated");
+        return issued;
+    }
+
+    /**
+     * 로그아웃 - 토큰이 속한 family 를 폐기한다. 모르는 토큰은 무시한다.
+     */
+    @Transactional
+    public void revoke(String refreshToken) {
+        String tokenHash = hash(refreshToken);
+        find(tokenHash).ifPresent(state -> {
+            tokens.invalidate(tokenHash);
+            revokeFamily(state.familyId);
+            count("revoked");
+        });
+    }
+
+    /**
+     * 만료된 토큰 행을 batch 단위로 지운다. 지운 행 수를 돌려준다.
+     */
+    public int sweep() {
+        int batchSize = config.getSweepBatchSize();
+        int swept = 0;
+        while (true) {
+            List<Long> ids = refreshTokenRepository.findExpiredIds(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            swept += refreshTokenRepository.deleteByIds(ids);
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (swept > 0) {
+            log.info("expired refresh tokens swept. count={}", swept);
+        }
+        return swept;
+    }
+
+    private Optional<TokenState> find(String tokenHash) {
+        TokenState cached = tokens.getIfPresent(tokenHash);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return refreshTokenRepository.findByTokenHash(tokenHash).map(TokenState::new);
+    }
+
+    private Issued save(Long userId, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(token))
+                .userId(userId)
+                .familyId(familyId)
+                .expiresAt(LocalDateTime.now().plus(config.getTtl()))
+                .build());
+
+        tokens.put(refreshToken.getTokenHash(), new TokenState(refreshToken));
+        return new Issued(userId, token);
+    }
+
+    private void revokeFamily(String familyId) {
+        revokedFamilies.put(familyId, Boolean.TRUE);
+        refreshTokenRepository.revokeFamily(familyId);
+    }
+
+    private Unauthorized reject(String result) {
+        count(result);
+        return new Unauthorized();
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("auth.refresh", "result", result).increment();
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 발급 결과 - token 은 원문이라 응답으로만 내보낸다.
+     */
+    @Getter
+    public static class Issued {
+        private final Long userId;
+        private final String token;
+
+        private Issued(Long userId, String token) {
+            this.userId = userId;
+            this.token = token;
+        }
+    }
+
+    private static class TokenState {
+        private final Long id;
+        private final Long userId;
+        private final String familyId;
+        private final LocalDateTime expiresAt;
+        private final boolean used;
+        private final boolean revoked;
+
+        private TokenState(RefreshToken refreshToken) {
+            this.id = refreshToken.getId();
+            this.userId = refreshToken.getUserId();
+            this.familyId = refreshToken.getFamilyId();
+            this.expiresAt = refreshToken.getExpiresAt();
+            this.used = refreshToken.getUsedAt() != null;
+            this.revoked = refreshToken.isRevoked();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.myblog.api.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.myblog.api.config.AppConfig;
+import com.myblog.api.config.data.UserSession;
+import com.myblog.api.domain.Session;
+import com.myblog.api.domain.User;
+import com.myblog.api.repository.SessionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 불투명(opaque) 액세스 토큰 세션 저장소 - 로그인은 JWT 를 발급하고, 예전 세션 토큰은 AuthResolver 가 여기서 찾는다.
+ * 토큰 -> userId 를 메모리에 만료 시각까지 들고 있어서, 검증은 해시 조회 한번이고 User 는 읽지 않는다.
+ * 메모리에 없으면 unique 인덱스로 session 한 행만 조회한다.
+ * 만료된 행은 sweepInterval 마다 sweepBatchSize 개씩 지운다.
+ */
+@Slf4j
+@Component
+public class SessionStore {
+
+    private final SessionRepository sessionRepository;
+    private final EntityManager entityManager;
+    private final AppConfig.SessionStore config;
+
+    // 토큰 -> UserSession (세션 만료 시각까지 보관)
+    private final Cache<String, UserSession> sessions;
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "session-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SessionStore(SessionRepository sessionRepository,
+                        EntityManager entityManager,
+                        AppConfig appConfig,
+                        MeterRegistry meterRegistry) {
+        this.sessionRepository = sessionRepository;
+        this.entityManager = entityManager;
+        this.config = appConfig.getSessionStore();
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(config.getCacheSize())
+                .expireAfter(new UntilExpiration())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, "sessions");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = config.getSweepInterval().toMillis();
+        sweeper.scheduleWithFixedDelay(() -> {
+            try {
+                sweep();
+            } catch (RuntimeException e) {
+                log.warn("session sweep failed", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * User 를 읽지 않고 참조(프록시)로 세션을 만든다.
+     * 메모리에는 커밋된 뒤에 올린다 - 롤백되면 없는 세션이 캐시로 통과하지 않도록
+     */
+    @Transactional
+    public Session create(Long userId) {
+        Session session = Session.builder()
+                .user(entityManager.getReference(User.class, userId))
+                .ttl(config.getTtl())
+                .build();
+        sessionRepository.save(session);
+
+        String accessToken = session.getAccessToken();
+        UserSession userSession = userSession(userId, session.getExpiresAt());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sessions.put(accessToken, userSession);
+            }
+        });
+        return session;
+    }
+
+    public Optional<UserSession> find(String accessToken) {
+        UserSession cached = sessions.getIfPresent(accessToken);
+        if (cached != null) {
+            // 캐시 만료와 별개로 만료 시각은 요청마다 확인한다
+            if (System.currentTimeMillis() > cached.expiration.getTime()) {
+                sessions.invalidate(accessToken);
+                return Optional.empty();
+            }
+            return Optional.of(cached);
+        }
+
+        Optional<UserSession> loaded = sessionRepository.findActive(accessToken, LocalDateTime.now())
+                .map(active -> userSession(active.getUserId(), active.getExpiresAt()));
+        loaded.ifPresent(userSession -> sessions.put(accessToken, userSession));
+        return loaded;
+    }
+
+    public void delete(String accessToken) {
+        sessionRepository.deleteByAccessToken(accessToken);
+        sessions.invalidate(accessToken);
+    }
+
+    /**
+     * 만료된 세션 행을 batch 단위로 지운다. 지운 행 수를 돌려준다.
+     * 메모리의 항목은 만료 시각에 따로 빠지므로 건드리지 않는다.
+     */
+    public int sweep() {
+        int batchSize = config.getSweepBatchSize();
+        int swept = 0;
+        while (true) {
+            List<Long> ids = sessionRepository.findExpiredIds(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            swept += sessionRepository.deleteByIds(ids);
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (swept > 0) {
+            log.info("expired sessions swept. count={}", swept);
+        }
+        return swept;
+    }
+
+    private static UserSession userSession(Long userId, LocalDateTime expiresAt) {
+        return new UserSession(userId, null, Date.from(expiresAt.atZone(ZoneId.systemDefault()).toInstant()));
+    }
+
+    private static class UntilExpiration implements Expiry<String, UserSession> {
+
+        @Override
+        public long expireAfterCreate(String key, UserSession value, long currentTime) {
+            long remainingMillis = value.expiration.getTime() - System.currentTimeMillis();
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, UserSession value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, UserSession value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
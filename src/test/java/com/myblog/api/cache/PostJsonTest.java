@@ -0,0 +1,87 @@
+package com.myblog.api.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myblog.api.response.PostResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PostJsonTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("조회수만 바꿔 쓴 바이트가 Jackson 직렬화 결과와 같다")
+    void same_as_jackson() throws IOException {
+        //given
+        PostResponse response = response("제목 \"따옴표\"\n", "내용 😀 \\ </script>", 7);
+        PostJson json = of(response, 1024);
+
+        for (long views : new long[]{0, 7, 9, 10, 12_345, Long.MAX_VALUE}) {
+            //when
+            byte[] written = write(json, views, false);
+
+            //then
+            assertThat(written).isEqualTo(objectMapper.writeValueAsBytes(response.withViews(views)));
+            assertThat(json.contentLength(views, false)).isEqualTo(written.length);
+        }
+        assertThat(json.hasGzip()).isFalse();
+    }
+
+    @Test
+    @DisplayName("gzip 본은 풀면 Jackson 직렬화 결과와 같다 (CRC, 길이 검사 포함)")
+    void gzip() throws IOException {
+        //given - 압축 버퍼(8KB) 보다 큰 본문
+        PostResponse response = response("제목", "가나다라마바사 abc 123 ".repeat(5_000), 3);
+        PostJson json = of(response, 1024);
+
+        for (long views : new long[]{0, 3, 1_000_000}) {
+            //when
+            byte[] written = write(json, views, true);
+
+            //then
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(written))) {
+                assertThat(in.readAllBytes()).isEqualTo(objectMapper.writeValueAsBytes(response.withViews(views)));
+            }
+            assertThat(json.contentLength(views, true)).isEqualTo(written.length);
+            assertThat((long) written.length).isLessThan(json.contentLength(views, false) / 4);
+        }
+    }
+
+    @Test
+    @DisplayName("조회수가 마지막 필드가 아니면 만들지 않는다")
+    void views_not_last() {
+        byte[] bytes = "{\"views\":1,\"id\":1}".getBytes();
+
+        assertThatThrownBy(() -> PostJson.of(1L, 0L, 1, 0, bytes, 1024))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private PostJson of(PostResponse response, long gzipMinSize) throws IOException {
+        return PostJson.of(response.getId(), response.getVersion(), response.getViews(), 0,
+                objectMapper.writeValueAsBytes(response), gzipMinSize);
+    }
+
+    private static byte[] write(PostJson json, long views, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        json.write(out, views, gzip);
+        return out.toByteArray();
+    }
+
+    private static PostResponse response(String title, String content, long views) {
+        return PostResponse.builder()
+                .id(1L)
+                .title(title)
+                .content(content)
+                .views(views)
+                .version(0L)
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.myblog.api.compression;
+
+import com.myblog.api.config.AppConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompressedContentConverterTest {
+
+    private final CompressedContentConverter converter = converter(true);
+
+    @Test
+    @DisplayName("threshold 이상인 본문은 압축해서 저장하고 그대로 복원한다")
+    void compress() {
+        String content = "스프링 부트로 블로그 만들기 ".repeat(500);
+
+        String stored = converter.convertToDatabaseColumn(content);
+
+        assertThat(stored.charAt(0)).isEqualTo(CompressedContentConverter.MARKER);
+        assertThat(stored.charAt(1)).isEqualTo('D');
+        assertThat(stored.length()).isLessThan(content.length() / 10);
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("threshold 보다 작은 본문과 압축 전 데이터는 그대로 읽는다")
+    void plain() {
+        assertThat(converter.convertToDatabaseColumn("짧은 본문")).isEqualTo("짧은 본문");
+        assertThat(converter.convertToEntityAttribute("기존에 저장된 본문")).isEqualTo("기존에 저장된 본문");
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("MARKER 로 시작하는 원문은 크기와 상관없이 감싸서 저장한다")
+    void markerPrefixedContent() {
+        String content = CompressedContentConverter.MARKER + "D짧은 본문";
+
+        String stored = converter(false).convertToDatabaseColumn(content);
+
+        assertThat(stored).isNotEqualTo(content);
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("설정에 없는 코덱 이름이면 기동할 수 없다")
+    void unknownCodec() {
+        AppConfig appConfig = new AppConfig();
+        appConfig.getContentCompression().setCodec("lz4");
+
+        assertThatThrownBy(() -> new CompressedContentConverter(appConfig, List.of(new DeflateContentCodec())))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static CompressedContentConverter converter(boolean enabled) {
+        AppConfig appConfig = new AppConfig();
+        appConfig.getContentCompression().setEnabled(enabled);
+        appConfig.getContentCompression().setThreshold(DataSize.ofBytes(100));
+        return new CompressedContentConverter(appConfig, List.of(new DeflateContentCodec()));
+    }
+}
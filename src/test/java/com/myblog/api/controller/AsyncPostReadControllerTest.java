@@ -0,0 +1,193 @@
+package com.myblog.api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myblog.api.cache.PostCounter;
+import com.myblog.api.domain.Post;
+import com.myblog.api.repository.PostRepository;
+import com.myblog.api.service.PostService;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.io.ByteArrayInputStream;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+@SpringBootTest(properties = {
+        "myblog.async-read.enabled=true",
+        "myblog.async-read.timeout=500ms"
+})
+@AutoConfigureMockMvc
+class AsyncPostReadControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostCounter postCounter;
+    @SpyBean
+    private PostService postService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void clean() {
+        postRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("비동기 모드 - 글 1개 조회와 304")
+    void get() throws Exception {
+        //given
+        Post post = postRepository.save(Post.builder()
+                .title("제목입니다.")
+                .content("내용입니다.")
+                .build());
+
+        //expected
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/posts/{postId}", post.getId()))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "W/\"" + post.getId() + "-0\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.title").value("제목입니다."))
+                .andDo(MockMvcResultHandlers.print());
+
+        MvcResult notModified = mockMvc.perform(MockMvcRequestBuilders.get("/posts/{postId}", post.getId())
+                        .header("If-None-Match", "W/\"" + post.getId() + "-0\""))
+                .andReturn();
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(notModified))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @Test
+    @DisplayName("비동기 모드 - 동기 방식과 같이 미리 압축해 둔 본문(-gz ETag)을 내려주고, 두 ETag 모두 304")
+    void get_conditional_gzip() throws Exception {
+        //given
+        Post post = postRepository.save(Post.builder()
+                .title("제목입니다.")
+                .content("긴 내용입니다. ".repeat(1_000))
+                .build());
+        String etag = "W/\"" + post.getId() + "-0\"";
+        String gzipEtag = "W/\"" + post.getId() + "-0-gz\"";
+
+        //when
+        MockHttpServletResponse gzip = mockMvc.perform(asyncDispatch(MockMvcRequestBuilders.get("/posts/{postId}", post.getId())
+                        .header("Accept-Encoding", "gzip")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Content-Encoding", "gzip"))
+                .andExpect(MockMvcResultMatchers.header().string("Vary", "Accept-Encoding"))
+                .andExpect(MockMvcResultMatchers.header().string("ETag", gzipEtag))
+                .andReturn().getResponse();
+
+        //then
+        byte[] body;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getContentAsByteArray()))) {
+            body = in.readAllBytes();
+        }
+        JsonNode json = objectMapper.readTree(body);
+        assertThat(json.get("content").asText()).isEqualTo(post.getContent());
+        assertThat(json.get("views").asLong()).isEqualTo(1L);
+        assertThat(gzip.getContentLength()).isEqualTo(gzip.getContentAsByteArray().length);
+
+        mockMvc.perform(asyncDispatch(MockMvcRequestBuilders.get("/posts/{postId}", post.getId())))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist("Content-Encoding"))
+                .andExpect(MockMvcResultMatchers.header().string("ETag", etag))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.views").value(2));
+
+        mockMvc.perform(asyncDispatch(MockMvcRequestBuilders.get("/posts/{postId}", post.getId())
+                        .header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", gzipEtag)))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", gzipEtag));
+        mockMvc.perform(asyncDispatch(MockMvcRequestBuilders.get("/posts/{postId}", post.getId())
+                        .header("If-None-Match", etag)))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", etag))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @Test
+    @DisplayName("비동기 모드 - 목록 조회는 동기 방식과 같은 헤더를 내려준다")
+    void getList() throws Exception {
+        //given
+        postRepository.saveAll(IntStream.range(0, 7)
+                .mapToObj(i -> Post.builder().title("제목 " + i).content("내용 " + i).build())
+                .collect(Collectors.toList()));
+        postCounter.reconcile();
+
+        //expected
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/posts?page=1&size=5"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(PostController.TOTAL_COUNT_HEADER, "7"))
+                .andExpect(MockMvcResultMatchers.header().string(PostController.HAS_NEXT_HEADER, "true"))
+                .andExpect(MockMvcResultMatchers.header().exists(PostController.NEXT_CURSOR_HEADER))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()", Matchers.is(5)));
+    }
+
+    @Test
+    @DisplayName("비동기 모드 - 없는 글은 404 ErrorResponse")
+    void notFound() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/posts/{postId}", 1L))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.code").value("404"))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("비동기 모드 - 제한 시간을 넘기면 503 ErrorResponse")
+    void timeout() throws Exception {
+        //given
+        Mockito.doAnswer(invocation -> {
+            Thread.sleep(2000);
+            return invocation.callRealMethod();
+        }).when(postService).getVersion(anyLong());
+
+        //expected
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/posts/{postId}", 1L))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.header().string("Retry-After", "1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.code").value("503"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value("요청 처리 시간이 초과되었습니다. 잠시 후 다시 시도해주세요."))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    private RequestBuilder asyncDispatch(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        return MockMvcRequestBuilders.asyncDispatch(result);
+    }
+}
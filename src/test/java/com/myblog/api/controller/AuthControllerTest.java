@@ -1,12 +1,22 @@
 package com.myblog.api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myblog.api.config.AppConfig;
+import com.myblog.api.crypto.PasswordEncoder;
 import com.myblog.api.domain.Session;
 import com.myblog.api.domain.User;
+import com.myblog.api.ratelimit.AuthRateLimiter;
 import com.myblog.api.repository.SessionRepository;
 import com.myblog.api.repository.UserRepository;
 import com.myblog.api.request.Login;
+import com.myblog.api.request.Refresh;
 import com.myblog.api.request.Signup;
+import com.myblog.api.session.RefreshTokenStore;
+import com.myblog.api.session.SessionStore;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,12 +25,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import java.util.Date;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
@@ -39,9 +53,36 @@ class AuthControllerTest {
     @Autowired
     private SessionRepository sessionRepository;
 
+    @Autowired
+    private AppConfig appConfig;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
+    @Autowired
+    private SessionStore sessionStore;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
     @BeforeEach
     void clean() {
+        sessionRepository.deleteAll();
         userRepository.deleteAll();
+        authRateLimiter.clear();
+        // @Transactional 테스트는 delete 를 먼저 내보내야 같은 이메일로 다시 저장할 수 있다 (users.email unique)
+        if (TestTransaction.isActive()) {
+            entityManager.flush();
+        }
     }
 
     @Test
@@ -51,7 +92,7 @@ class AuthControllerTest {
         userRepository.save(User.builder()
                 .name("forest")
                 .email("abc@gmail.com")
-                .password("1234")
+                .password(passwordEncoder.encrypt("1234"))
                 .build());
 
         // 암호화 알고리즘 참고 : Scrypt, Bcrypt
@@ -75,13 +116,13 @@ class AuthControllerTest {
 
     @Test
     @Transactional
-    @DisplayName("로그인 성공 후 세션 1개 생성")
+    @DisplayName("로그인 성공 후 JWT 액세스 토큰 발급 - 세션 행은 만들지 않는다")
     public void SessionAfterLogin() throws Exception {
         //given
         User user = userRepository.save(User.builder()
                 .name("forest")
                 .email("abc@gmail.com")
-                .password("1234")
+                .password(passwordEncoder.encrypt("1234"))
                 .build());
 
         //when
@@ -97,13 +138,10 @@ class AuthControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(json))
                 .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.accessToken", Matchers.matchesPattern("[^.]+\\.[^.]+\\.[^.]+")))
                 .andDo(MockMvcResultHandlers.print());
 
-        User loggedInUser = userRepository.findById(user.getId())
-                        .orElseThrow(() -> new RuntimeException());
-
-
-        assertThat(loggedInUser.getSessions().size()).isEqualTo(1L);
+        assertThat(sessionRepository.count()).isZero();
     }
 
     @Test
@@ -113,7 +151,7 @@ class AuthControllerTest {
         User user = userRepository.save(User.builder()
                 .name("forest")
                 .email("abc@gmail.com")
-                .password("1234")
+                .password(passwordEncoder.encrypt("1234"))
                 .build());
 
         //when
@@ -139,13 +177,12 @@ class AuthControllerTest {
     public void accessAfterLogin() throws Exception {
 
         //given
-        User user = User.builder()
+        User user = userRepository.save(User.builder()
                 .name("forest")
                 .email("abc@gmail.com")
                 .password("1234")
-                .build();
-        Session session = user.addSession();
-        userRepository.save(user);
+                .build());
+        Session session = sessionStore.create(user.getId());
 
         // expected
         mockMvc.perform(MockMvcRequestBuilders.get("/foo")
@@ -160,13 +197,12 @@ class AuthControllerTest {
     public void accessAfterUnauthorizedSession() throws Exception {
 
         //given
-        User user = User.builder()
+        User user = userRepository.save(User.builder()
                 .name("forest")
                 .email("abc@gmail.com")
                 .password("1234")
-                .build();
-        Session session = user.addSession();
-        userRepository.save(user);
+                .build());
+        Session session = sessionStore.create(user.getId());
 
         // expected
         mockMvc.perform(MockMvcRequestBuilders.get("/foo")
@@ -176,6 +212,130 @@ class AuthControllerTest {
                 .andDo(MockMvcResultHandlers.print());
     }
 
+    @Test
+    @DisplayName("같은 JWT 로 여러번 접근해도 인증된다")
+    public void accessWithSameJwt() throws Exception {
+        //given
+        String jws = jws(1L, new Date(System.currentTimeMillis() + 60_000L));
+        Timer verify = meterRegistry.timer("auth.jwt.verify", "result", "valid");
+        long verified = verify.count();
+
+        // expected
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/foo")
+                            .header("Authorization", jws)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(1L));
+        }
+
+        // 서명 검증은 처음 한번만
+        assertThat(verify.count()).isEqualTo(verified + 1);
+    }
+
+    @Test
+    @DisplayName("검증되어 캐시된 JWT 도 만료 시각이 지나면 인증할 수 없다")
+    public void accessWithExpiredCachedJwt() throws Exception {
+        //given
+        Date expiration = new Date(System.currentTimeMillis() + 2_000L);
+        String jws = jws(1L, expiration);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/foo")
+                        .header("Authorization", jws)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        // exp 는 초 단위로 저장된다
+        Thread.sleep(expiration.getTime() - System.currentTimeMillis() + 100L);
+
+        // expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/foo")
+                        .header("Authorization", jws)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value("만료된 토큰입니다."))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("refresh token 으로 비밀번호 해시 없이 액세스 토큰을 재발급한다")
+    public void refresh() throws Exception {
+        //given
+        User user = userRepository.save(User.builder()
+                .name("forest")
+                .email("abc@gmail.com")
+                .password("1234")
+                .build());
+        String refreshToken = refreshTokenStore.issue(user.getId()).getToken();
+        Timer hashing = meterRegistry.timer("password.hashing.time");
+        long hashed = hashing.count();
+
+        //when
+        String response = mockMvc.perform(MockMvcRequestBuilders.post("/auth/refresh")
+                        .content(objectMapper.writeValueAsString(Refresh.builder().refreshToken(refreshToken).build()))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.refreshToken").value(Matchers.not(refreshToken)))
+                .andDo(MockMvcResultHandlers.print())
+                .andReturn().getResponse().getContentAsString();
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.get("/foo")
+                        .header("Authorization", objectMapper.readTree(response).get("accessToken").asText()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(user.getId()));
+        assertThat(hashing.count()).isEqualTo(hashed);
+    }
+
+    @Test
+    @DisplayName("이미 쓴 refresh token 을 다시 쓰면 401 이고 새로 받은 토큰도 폐기된다")
+    public void refreshReuse() throws Exception {
+        //given
+        String used = refreshTokenStore.issue(7L).getToken();
+        String rotated = refreshTokenStore.rotate(used).getToken();
+
+        // expected
+        mockMvc.perform(MockMvcRequestBuilders.post("/auth/refresh")
+                        .content(objectMapper.writeValueAsString(Refresh.builder().refreshToken(used).build()))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/auth/refresh")
+                        .content(objectMapper.writeValueAsString(Refresh.builder().refreshToken(rotated).build()))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("로그아웃한 refresh token 으로는 재발급할 수 없다")
+    public void refreshAfterLogout() throws Exception {
+        //given
+        String refreshToken = refreshTokenStore.issue(7L).getToken();
+        String json = objectMapper.writeValueAsString(Refresh.builder().refreshToken(refreshToken).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/auth/logout")
+                        .content(json)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        // expected
+        mockMvc.perform(MockMvcRequestBuilders.post("/auth/refresh")
+                        .content(json)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    private String jws(Long userId, Date expiration) {
+        return Jwts.builder()
+                .setSubject(String.valueOf(userId))
+                .signWith(Keys.hmacShaKeyFor(appConfig.getJwtKey()))
+                .setIssuedAt(new Date())
+                .setExpiration(expiration)
+                .compact();
+    }
+
     @Test
     @DisplayName("회원가입")
     public void signup() throws Exception {
@@ -195,4 +355,41 @@ class AuthControllerTest {
                 .andDo(MockMvcResultHandlers.print());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("같은 이메일로 로그인을 계속 시도하면 429 와 Retry-After")
+    public void loginRateLimited() throws Exception {
+        //given
+        String json = objectMapper.writeValueAsString(Login.builder()
+                .email("abc@gmail.com")
+                .password("wrong")
+                .build());
+        double rejected = meterRegistry.counter("auth.rate.limited", "endpoint", "login", "key", "email").count();
+
+        for (int i = 0; i < appConfig.getRateLimit().getEmailCapacity(); i++) {
+            mockMvc.perform(MockMvcRequestBuilders.post("/auth/login")
+                            .content(json)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        }
+
+        // expected
+        mockMvc.perform(MockMvcRequestBuilders.post("/auth/login")
+                        .content(json)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().exists("Retry-After"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.code").value("429"))
+                .andDo(MockMvcResultHandlers.print());
+        assertThat(meterRegistry.counter("auth.rate.limited", "endpoint", "login", "key", "email").count())
+                .isEqualTo(rejected + 1);
+
+        // 다른 이메일은 IP 제한 안이라 그대로 처리된다
+        mockMvc.perform(MockMvcRequestBuilders.post("/auth/login")
+                        .content(objectMapper.writeValueAsString(Login.builder()
+                                .email("other@gmail.com")
+                                .password("wrong")
+                                .build()))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+}
@@ -1,10 +1,17 @@
 package com.myblog.api.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myblog.api.cache.PostCounter;
 import com.myblog.api.domain.Post;
+import com.myblog.api.metrics.SqlStatementCounter;
 import com.myblog.api.repository.PostRepository;
+import com.myblog.api.request.PostBulkDelete;
 import com.myblog.api.request.PostCreate;
 import com.myblog.api.request.PostEdit;
+import com.myblog.api.request.PostSearch;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,14 +20,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -35,6 +47,10 @@ public class PostControllerTest {
     private MockMvc mockMvc;
     @Autowired
     private PostRepository postRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private PostCounter postCounter;
 
     @BeforeEach
     public void clean() {
@@ -117,6 +133,56 @@ public class PostControllerTest {
     }
 
 
+    @Test
+    @DisplayName("글 대량 등록 - JSON 배열, 잘못된 항목만 실패로 응답")
+    public void bulk_json() throws Exception {
+        //given
+        List<PostCreate> requests = List.of(
+                PostCreate.builder().title("제목 1").content("내용 1").build(),
+                PostCreate.builder().content("제목 없음").build(),
+                PostCreate.builder().title("나는 바보").content("내용 3").build(),
+                PostCreate.builder().title("제목 4").content("내용 4").build());
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.post("/posts/bulk")
+                        .header("authorization", "forest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(4))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.succeeded").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failed").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failures[0].index").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failures[0].validation.title").value("타이틀을 입력하세요."))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failures[1].index").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failures[1].validation.title").value("제목에 바보를 포함할 수 없습니다."))
+                .andDo(MockMvcResultHandlers.print());
+
+        assertThat(postRepository.count()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("글 대량 등록 - NDJSON")
+    public void bulk_ndjson() throws Exception {
+        //given
+        String body = IntStream.range(0, 250)
+                .mapToObj(i -> "{\"title\":\"제목 " + i + "\",\"content\":\"내용 " + i + "\"}")
+                .collect(Collectors.joining("\n"));
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.post("/posts/bulk")
+                        .header("authorization", "forest")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(250))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.succeeded").value(250))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failed").value(0))
+                .andDo(MockMvcResultHandlers.print());
+
+        assertThat(postRepository.count()).isEqualTo(250L);
+    }
+
     @Test
     @DisplayName("글 1개 조회")
     public void single_search_() throws Exception {
@@ -143,6 +209,152 @@ public class PostControllerTest {
     }
 
 
+    @Test
+    @DisplayName("글 1개 조회 - If-None-Match 가 같으면 304, 수정 후에는 새 ETag 로 200")
+    public void single_search_etag() throws Exception {
+        //given
+        Post post = Post.builder()
+                .title("제목입니다.")
+                .content("내용입니다.")
+                .build();
+        postRepository.save(post);
+
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/posts/{postId}", post.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "W/\"" + post.getId() + "-0\""))
+                .andReturn().getResponse().getHeader("ETag");
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/posts/{postId}", post.getId())
+                        .header("If-None-Match", etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+
+        // PATCH 는 비교 없이 그대로 쓰므로 제목, 본문 version 이 각각 1 증가
+        PostEdit postEdit = PostEdit.builder()
+                .title("수정한 제목")
+                .content("내용입니다.")
+                .build();
+        mockMvc.perform(MockMvcRequestBuilders.patch("/posts/{postId}", post.getId())
+                        .header("authorization", "forest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(postEdit)))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/posts/{postId}", post.getId())
+                        .header("If-None-Match", etag))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "W/\"" + post.getId() + "-2\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.title").value("수정한 제목"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("글 1개 조회 - Accept-Encoding: gzip 이면 미리 압축해 둔 본문(ETag 에 -gz), 조회수는 요청마다 증가")
+    public void single_search_gzip() throws Exception {
+        //given
+        Post post = postRepository.save(Post.builder()
+                .title("제목입니다.")
+                .content("긴 내용입니다. ".repeat(1_000))
+                .build());
+
+        for (long views = 1; views <= 2; views++) {
+            //when
+            MockHttpServletResponse response = mockMvc.perform(MockMvcRequestBuilders.get("/posts/{postId}", post.getId())
+                            .header("Accept-Encoding", "br;q=1.0, gzip;q=0.8"))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.header().string("Content-Encoding", "gzip"))
+                    .andExpect(MockMvcResultMatchers.header().string("Vary", "Accept-Encoding"))
+                    .andExpect(MockMvcResultMatchers.header().string("ETag", "W/\"" + post.getId() + "-0-gz\""))
+                    .andReturn().getResponse();
+
+            //then
+            byte[] body;
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+                body = in.readAllBytes();
+            }
+            JsonNode json = objectMapper.readTree(body);
+            assertThat(json.get("content").asText()).isEqualTo(post.getContent());
+            assertThat(json.get("views").asLong()).isEqualTo(views);
+            assertThat(response.getContentLength()).isEqualTo(response.getContentAsByteArray().length);
+        }
+
+        // gzip 을 받지 않는 클라이언트에는 압축하지 않은 본문
+        mockMvc.perform(MockMvcRequestBuilders.get("/posts/{postId}", post.getId())
+                        .header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist("Content-Encoding"))
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "W/\"" + post.getId() + "-0\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.views").value(3));
+
+        // 압축본의 ETag 로 물어봐도 304
+        mockMvc.perform(MockMvcRequestBuilders.get("/posts/{postId}", post.getId())
+                        .header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", "W/\"" + post.getId() + "-0-gz\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", "W/\"" + post.getId() + "-0-gz\""));
+    }
+
+    @Test
+    @DisplayName("페이지 조회 - 목록이 그대로면 304")
+    public void page_search_etag() throws Exception {
+        //given
+        postRepository.saveAll(IntStream.range(0, 3)
+                .mapToObj(i -> Post.builder()
+                        .title("게시글 제목 " + i)
+                        .content("게시글 내용 " + i)
+                        .build())
+                .collect(Collectors.toList()));
+
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/posts?page=1&size=5"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/posts?page=1&size=5")
+                        .header("If-None-Match", etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+
+        postRepository.save(Post.builder()
+                .title("새 글")
+                .content("새 글 내용")
+                .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/posts?page=1&size=5")
+                        .header("If-None-Match", etag))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()", Matchers.is(4)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].title").value("새 글"));
+    }
+
+    @Test
+    @DisplayName("페이지 조회 - 전체 글 수와 페이지 정보는 헤더로 내려준다")
+    public void page_search_metadata() throws Exception {
+        //given
+        postRepository.saveAll(IntStream.range(0, 12)
+                .mapToObj(i -> Post.builder()
+                        .title("게시글 제목 " + i)
+                        .content("게시글 내용 " + i)
+                        .build())
+                .collect(Collectors.toList()));
+        postCounter.reconcile();
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/posts?page=2&size=5"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(PostController.TOTAL_COUNT_HEADER, "12"))
+                .andExpect(MockMvcResultMatchers.header().string(PostController.TOTAL_PAGES_HEADER, "3"))
+                .andExpect(MockMvcResultMatchers.header().string(PostController.HAS_NEXT_HEADER, "true"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()", Matchers.is(5)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/posts?page=3&size=5"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(PostController.HAS_NEXT_HEADER, "false"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()", Matchers.is(2)));
+    }
+
     @Test
     @DisplayName("페이지 조회 - 첫페이지: page=1 이고 page=0 해도 첫페이지 보여준다")
     public void page_search() throws Exception {
@@ -163,10 +375,137 @@ public class PostControllerTest {
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.length()", Matchers.is(10)))
                 .andExpect(MockMvcResultMatchers.jsonPath("$[0].title").value("게시글 제목 9"))
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].content").value("게시글 내용 9"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].excerpt").value("게시글 내용 9"))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("페이지 조회 - 커서 페이징은 다음 커서를 헤더로 응답한다")
+    public void page_search_cursor() throws Exception {
+        //given
+        List<Post> requestPosts = IntStream.range(0,10)
+                .mapToObj(i -> Post.builder()
+                        .title("게시글 제목 " + i)
+                        .content("게시글 내용 " + i)
+                        .build())
+                .collect(Collectors.toList());
+
+        postRepository.saveAll(requestPosts);
+
+        String cursor = PostSearch.encodeCursor(requestPosts.get(5).getId());
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/posts?after={cursor}&size=3", cursor)
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()", Matchers.is(3)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].title").value("게시글 제목 4"))
+                .andExpect(MockMvcResultMatchers.header().string("X-Next-Cursor",
+                        PostSearch.encodeCursor(requestPosts.get(2).getId())))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("글 목록 조회시 요청당 SQL 개수와 조회한 행 수를 기록한다")
+    public void page_search_metrics() throws Exception {
+        //given
+        postRepository.saveAll(IntStream.range(0, 3)
+                .mapToObj(i -> Post.builder()
+                        .title("게시글 제목 " + i)
+                        .content("게시글 내용 " + i)
+                        .build())
+                .collect(Collectors.toList()));
+
+        DistributionSummary statements = meterRegistry.summary("sql.statements", "method", "GET", "uri", "/posts");
+        DistributionSummary rows = meterRegistry.summary("posts.list.rows", "paging", "offset");
+        long statementCount = statements.count();
+        double statementTotal = statements.totalAmount();
+        long rowCount = rows.count();
+        double rowTotal = rows.totalAmount();
+
+        //when
+        mockMvc.perform(MockMvcRequestBuilders.get("/posts?page=1&size=5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        //then
+        assertThat(statements.count()).isEqualTo(statementCount + 1);
+        assertThat(statements.totalAmount() - statementTotal).isEqualTo(1.0);
+        assertThat(rows.count()).isEqualTo(rowCount + 1);
+        assertThat(rows.totalAmount() - rowTotal).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("페이지 조회 - 잘못된 커서")
+    public void page_search_invalidCursor() throws Exception {
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/posts?after=not-a-cursor")
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.validation.after").value("잘못된 커서입니다."))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("글 검색 - q 파라미터")
+    public void page_search_query() throws Exception {
+        //given
+        PostCreate request = PostCreate.builder()
+                .title("검색되는 글")
+                .content("역색인 테스트")
+                .build();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/posts")
+                        .header("authorization", "forest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.get("/posts?q={q}", "역색인")
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()", Matchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].title").value("검색되는 글"))
                 .andDo(MockMvcResultHandlers.print());
     }
 
+    @Test
+    @DisplayName("전체 글 내보내기 - NDJSON 스트리밍")
+    public void export() throws Exception {
+        //given
+        List<Post> requestPosts = IntStream.range(0,3)
+                .mapToObj(i -> Post.builder()
+                        .title("게시글 제목입니다 " + i)
+                        .content("게시글 내용 " + i)
+                        .build())
+                .collect(Collectors.toList());
+
+        postRepository.saveAll(requestPosts);
+
+        //when
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/posts/export"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        //then
+        String body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(objectMapper.readTree(lines[0]).get("title").asText()).isEqualTo("게시글 제목입니다 0");
+        assertThat(objectMapper.readTree(lines[2]).get("content").asText()).isEqualTo("게시글 내용 2");
+    }
+
     @Test
     @DisplayName("글 제목 수정")
     public void edit_post_title() throws Exception {
@@ -211,6 +550,81 @@ public class PostControllerTest {
                 .andDo(MockMvcResultHandlers.print());
     }
 
+    @Test
+    @DisplayName("글 대량 삭제 - ids")
+    public void bulk_delete_ids() throws Exception {
+        //given
+        List<Post> posts = postRepository.saveAll(IntStream.range(0, 3)
+                .mapToObj(i -> Post.builder().title("제목 " + i).content("내용 " + i).build())
+                .collect(Collectors.toList()));
+        PostBulkDelete request = PostBulkDelete.builder()
+                .ids(List.of(posts.get(0).getId(), posts.get(2).getId(), posts.get(2).getId() + 100))
+                .build();
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.delete("/posts")
+                        .header("authorization", "forest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.deleted").value(2))
+                .andDo(MockMvcResultHandlers.print());
+
+        assertThat(postRepository.findAll()).extracting(Post::getId).containsExactly(posts.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("글 대량 삭제 - id 범위는 batchSize 개씩 나눠서 커밋한다")
+    public void bulk_delete_range() throws Exception {
+        //given
+        List<Post> posts = postRepository.saveAll(IntStream.range(0, 1200)
+                .mapToObj(i -> Post.builder().title("제목 " + i).content("내용 " + i).build())
+                .collect(Collectors.toList()));
+        Long lastId = posts.get(posts.size() - 1).getId();
+        PostBulkDelete request = PostBulkDelete.builder()
+                .fromId(posts.get(0).getId())
+                .toId(lastId - 1)
+                .build();
+
+        //when
+        List<String> statements = SqlStatementCounter.capture(() -> {
+            try {
+                mockMvc.perform(MockMvcRequestBuilders.delete("/posts")
+                                .header("authorization", "forest")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                        .andExpect(MockMvcResultMatchers.status().isOk())
+                        .andExpect(MockMvcResultMatchers.jsonPath("$.deleted").value(1199));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        //then - batch-size 500 -> 500 + 500 + 199
+        assertThat(statements).filteredOn(sql -> sql.startsWith("delete from post_content")).hasSize(3);
+        assertThat(postRepository.findAll()).extracting(Post::getId).containsExactly(lastId);
+    }
+
+    @Test
+    @DisplayName("글 대량 삭제 - ids 와 범위는 함께 쓸 수 없다")
+    public void bulk_delete_invalid() throws Exception {
+        //given
+        PostBulkDelete request = PostBulkDelete.builder()
+                .ids(List.of(1L))
+                .fromId(1L)
+                .toId(10L)
+                .build();
+
+        //expected
+        mockMvc.perform(MockMvcRequestBuilders.delete("/posts")
+                        .header("authorization", "forest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.validation.ids").value("ids 와 id 범위는 함께 사용할 수 없습니다."))
+                .andDo(MockMvcResultHandlers.print());
+    }
+
     @Test
     @DisplayName("존재하지 않는 게시글 조회")
     public void search_fail() throws Exception {
@@ -0,0 +1,178 @@
+package com.myblog.api.controller;
+
+import com.myblog.MyblogApplication;
+import com.myblog.api.cache.PostCounter;
+import com.myblog.api.domain.Post;
+import com.myblog.api.repository.PostRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 글 조회 부하 테스트 - blocking / async 모드 비교
+ * 톰캣 스레드를 커넥션 풀보다 조금 많게 두고, 목록 조회(DB) 와 DB 를 쓰지 않는 /bar 를 섞어서 보낸다.
+ * blocking 모드는 톰캣 스레드가 커넥션을 기다리며 묶여서 /bar 까지 느려지고, async 모드는 그렇지 않은지를 본다.
+ * 기본 test 에서는 빠지고 ./gradlew loadTest 로만 실행한다.
+ */
+@Tag("load")
+class PostReadLoadTest {
+
+    private static final int POSTS = 5_000;
+    private static final int CLIENTS = 64;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration DURATION = Duration.ofSeconds(10);
+
+    @Test
+    @DisplayName("blocking / async 모드 처리량 비교")
+    void compare() throws Exception {
+        Result blocking = run(false);
+        Result async = run(true);
+
+        System.out.println("mode      reads/s   errors  bar p50(ms)  bar p99(ms)");
+        System.out.println(blocking);
+        System.out.println(async);
+
+        assertThat(blocking.reads.get()).isPositive();
+        assertThat(async.reads.get()).isPositive();
+    }
+
+    private Result run(boolean asyncRead) throws Exception {
+        try (ConfigurableApplicationContext context = start(asyncRead)) {
+            seed(context);
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+
+            load(port, WARMUP, new Result(asyncRead));
+            Result result = new Result(asyncRead);
+            load(port, DURATION, result);
+            return result;
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean asyncRead) {
+        return new SpringApplicationBuilder(MyblogApplication.class)
+                .logStartupInfo(false)
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=8",
+                        "--spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.hikari.maximum-pool-size=4",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=warn",
+                        "--myblog.async-read.enabled=" + asyncRead,
+                        "--myblog.async-read.queue-capacity=1000",
+                        "--myblog.content-compression.migrate-on-startup=false");
+    }
+
+    private static void seed(ConfigurableApplicationContext context) {
+        PostRepository postRepository = context.getBean(PostRepository.class);
+        for (int from = 0; from < POSTS; from += 1_000) {
+            postRepository.saveAll(IntStream.range(from, Math.min(POSTS, from + 1_000))
+                    .mapToObj(i -> Post.builder().title("부하 테스트 제목 " + i).content("부하 테스트 본문 " + i).build())
+                    .collect(Collectors.toList()));
+        }
+        context.getBean(PostCounter.class).reconcile();
+    }
+
+    // 클라이언트 4 번 중 1 번은 /bar, 나머지는 캐시되지 않는 목록 조회
+    private static void load(int port, Duration duration, Result result) throws InterruptedException {
+        ExecutorService io = Executors.newFixedThreadPool(CLIENTS);
+        HttpClient client = HttpClient.newBuilder()
+                .executor(io)
+                .build();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        for (int c = 0; c < CLIENTS; c++) {
+            int clientId = c;
+            clients.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    boolean bar = clientId % 4 == 0;
+                    String path = bar
+                            ? "/bar"
+                            : "/posts?page=" + ThreadLocalRandom.current().nextInt(1, 100) + "&size=50";
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                            .timeout(Duration.ofSeconds(30))
+                            .build();
+
+                    long startedAt = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        long elapsed = System.nanoTime() - startedAt;
+                        if (response.statusCode() != 200) {
+                            result.errors.incrementAndGet();
+                        } else if (bar) {
+                            result.bar(elapsed);
+                        } else {
+                            result.reads.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        result.errors.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        clients.shutdown();
+        clients.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        io.shutdownNow();
+        result.seconds = duration.toMillis() / 1000.0;
+    }
+
+    private static class Result {
+        private final boolean asyncRead;
+        private final AtomicLong reads = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final List<Long> barLatencies = Collections.synchronizedList(new ArrayList<>());
+        private double seconds;
+
+        private Result(boolean asyncRead) {
+            this.asyncRead = asyncRead;
+        }
+
+        private void bar(long nanos) {
+            barLatencies.add(nanos);
+        }
+
+        private double percentile(double p) {
+            List<Long> sorted = new ArrayList<>(barLatencies);
+            if (sorted.isEmpty()) {
+                return 0;
+            }
+            Collections.sort(sorted);
+            int index = (int) Math.min(sorted.size() - 1, Math.ceil(p * sorted.size()) - 1);
+            return sorted.get(Math.max(0, index)) / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s %9.1f %8d %12.1f %12.1f",
+                    asyncRead ? "async" : "blocking",
+                    reads.get() / seconds,
+                    errors.get(),
+                    percentile(0.5),
+                    percentile(0.99));
+        }
+    }
+}
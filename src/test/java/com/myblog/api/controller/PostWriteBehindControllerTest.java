@@ -0,0 +1,221 @@
+package com.myblog.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myblog.api.cache.PostCounter;
+import com.myblog.api.config.AppConfig;
+import com.myblog.api.domain.Post;
+import com.myblog.api.repository.PostRepository;
+import com.myblog.api.request.PostCreate;
+import com.myblog.api.response.PostTicketResponse;
+import com.myblog.api.search.PostSearchIndex;
+import com.myblog.api.service.PostWriteBehind;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "myblog.write-behind.enabled=true",
+        "myblog.write-behind.max-delay=200ms",
+        "myblog.write-behind.journal=${java.io.tmpdir}/myblog-write-behind-test.journal"
+})
+@AutoConfigureMockMvc
+class PostWriteBehindControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PostRepository postRepository;
+    @Autowired
+    private PostWriteBehind postWriteBehind;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void clean() {
+        postRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("write-behind 모드 - 글 작성은 202 와 접수 번호, 커밋 후 상태는 DONE")
+    void post() throws Exception {
+        //given
+        String json = objectMapper.writeValueAsString(PostCreate.builder()
+                .title("제목입니다.")
+                .content("내용입니다.")
+                .build());
+
+        //when
+        String response = mockMvc.perform(MockMvcRequestBuilders.post("/posts")
+                        .header("authorization", "forest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value("PENDING"))
+                .andExpect(MockMvcResultMatchers.header().exists("Location"))
+                .andDo(MockMvcResultHandlers.print())
+                .andReturn().getResponse().getContentAsString();
+        String ticket = objectMapper.readTree(response).get("ticket").asText();
+
+        // then
+        PostTicketResponse done = awaitDone(postWriteBehind, ticket);
+        mockMvc.perform(MockMvcRequestBuilders.get("/posts/tickets/{ticket}", ticket))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value("DONE"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.postId").value(done.getPostId()));
+        assertThat(postRepository.findById(done.getPostId())).isPresent();
+    }
+
+    @Test
+    @DisplayName("한꺼번에 들어온 글은 묶어서 커밋한다")
+    void group_commit() throws Exception {
+        //given
+        DistributionSummary batchSizes = meterRegistry.summary("posts.write.batch.size");
+        long batches = batchSizes.count();
+        double committed = batchSizes.totalAmount();
+
+        //when
+        List<String> tickets = IntStream.range(0, 50)
+                .mapToObj(i -> postWriteBehind.submit(PostCreate.builder()
+                        .title("제목 " + i)
+                        .content("내용 " + i)
+                        .build()))
+                .collect(Collectors.toList());
+        for (String ticket : tickets) {
+            awaitDone(postWriteBehind, ticket);
+        }
+
+        // then
+        assertThat(postRepository.count()).isEqualTo(50L);
+        assertThat(batchSizes.totalAmount() - committed).isEqualTo(50.0);
+        assertThat(batchSizes.count() - batches).isLessThan(50L);
+    }
+
+    @Test
+    @DisplayName("동시에 접수한 글의 journal fsync 는 묶어서 한다")
+    void group_fsync() throws Exception {
+        //given
+        Counter fsyncs = meterRegistry.counter("posts.write.journal.fsync");
+        double before = fsyncs.count();
+        int threads = 16;
+        int perThread = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        //when
+        List<Future<List<String>>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                List<String> tickets = new ArrayList<>();
+                for (int i = 0; i < perThread; i++) {
+                    tickets.add(postWriteBehind.submit(PostCreate.builder()
+                            .title("제목 " + i)
+                            .content("내용 " + i)
+                            .build()));
+                }
+                return tickets;
+            }));
+        }
+        start.countDown();
+        List<String> tickets = new ArrayList<>();
+        for (Future<List<String>> future : futures) {
+            tickets.addAll(future.get(10, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        for (String ticket : tickets) {
+            awaitDone(postWriteBehind, ticket);
+        }
+
+        // then - 한 건씩 fsync 했다면 접수 건수 + done 기록 수 만큼 했을 것이다
+        assertThat(postRepository.count()).isEqualTo((long) threads * perThread);
+        assertThat(fsyncs.count() - before).isLessThan(threads * perThread);
+    }
+
+    @Test
+    @DisplayName("없는 접수 번호는 404")
+    void ticket_not_found() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/posts/tickets/{ticket}", "unknown"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andDo(MockMvcResultHandlers.print());
+    }
+
+    @Test
+    @DisplayName("기동할 때 journal 에서 커밋되지 않은 글만 다시 넣는다")
+    void replay(@TempDir Path dir,
+                @Autowired EntityManager entityManager,
+                @Autowired PlatformTransactionManager transactionManager,
+                @Autowired PostSearchIndex postSearchIndex,
+                @Autowired PostCounter postCounter) throws Exception {
+        //given - 두번째 글만 done 이 없고, 마지막 줄은 쓰다가 끊겼다
+        Path journal = dir.resolve("write-behind.journal");
+        Files.writeString(journal, String.join("\n",
+                "{\"type\":\"post\",\"ticket\":\"t-1\",\"title\":\"커밋된 글\",\"content\":\"내용\"}",
+                "{\"type\":\"post\",\"ticket\":\"t-2\",\"title\":\"남은 글\",\"content\":\"내용\"}",
+                "{\"type\":\"done\",\"tickets\":[\"t-1\"]}",
+                "{\"type\":\"post\",\"ticket\":\"t-3\",\"tit"), StandardCharsets.UTF_8);
+
+        AppConfig.WriteBehind config = new AppConfig.WriteBehind();
+        config.setJournal(journal.toString());
+        PostWriteBehind restarted = new PostWriteBehind(entityManager, transactionManager, postSearchIndex,
+                postCounter, objectMapper, config, new SimpleMeterRegistry());
+
+        //when
+        restarted.start();
+        PostTicketResponse done = awaitDone(restarted, "t-2");
+        restarted.shutdown();
+
+        // then
+        List<String> titles = StreamSupport.stream(postRepository.findAll().spliterator(), false)
+                .map(Post::getTitle)
+                .collect(Collectors.toList());
+        assertThat(titles).containsExactly("남은 글");
+        assertThat(done.getPostId()).isNotNull();
+        assertThat(restarted.find("t-3")).isEmpty();
+        assertThat(Files.size(journal)).isZero();
+    }
+
+    private static PostTicketResponse awaitDone(PostWriteBehind writeBehind, String ticket) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            PostTicketResponse response = writeBehind.find(ticket).orElseThrow();
+            if (response.getStatus() != PostTicketResponse.Status.PENDING) {
+                assertThat(response.getStatus()).isEqualTo(PostTicketResponse.Status.DONE);
+                return response;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("not committed. ticket=" + ticket);
+    }
+}
@@ -0,0 +1,79 @@
+package com.myblog.api.crypto;
+
+import com.myblog.api.exception.PasswordHashingBusy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, Duration.ofSeconds(5), meterRegistry);
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("해싱은 전용 스레드에서 실행되고 구현체별로 시간을 기록한다")
+    public void encrypt() {
+        //given
+        PasswordEncoder encoder = new BoundedPasswordEncoder(new PlainPasswordEncoder(), executor);
+
+        //when
+        String encrypted = encoder.encrypt("1234");
+
+        //then
+        assertThat(encoder.matches("1234", encrypted)).isTrue();
+        assertThat(meterRegistry.get("password.hashing.time")
+                .tag("encoder", "PlainPasswordEncoder")
+                .tag("operation", "matches")
+                .timer().count()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("큐가 가득 차면 기다리지 않고 PasswordHashingBusy")
+    public void rejectWhenQueueFull() throws Exception {
+        //given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = new BoundedPasswordEncoder(new PlainPasswordEncoder() {
+            @Override
+            public String encrypt(String rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword;
+            }
+        }, executor);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> slow.encrypt("1"));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> slow.encrypt("2"));
+        while (meterRegistry.get("password.hashing.queue").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        //expected
+        assertThatThrownBy(() -> slow.encrypt("3"))
+                .isInstanceOf(PasswordHashingBusy.class);
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("1");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("2");
+    }
+}
@@ -0,0 +1,223 @@
+package com.myblog.api.datasource;
+
+import com.myblog.api.config.ReplicaDataSourceConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.Database;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * primary, replica 를 각각 다른 H2 메모리 DB 로 두고 어느 쪽에서 읽었는지 node 테이블 값으로 확인한다.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(1);
+
+    private DataSource primaryAdmin;
+    private DataSource replicaAdmin;
+    private LazyConnectionDataSourceProxy dataSource;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource primary = node("primary");
+        primaryAdmin = primary;
+        String replicaUrl = "jdbc:h2:mem:replica-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        replicaAdmin = new DriverManagerDataSource(replicaUrl, "sa", "");
+        new JdbcTemplate(replicaAdmin).execute("create table node (name varchar(20)); insert into node values ('replica')");
+
+        // 한번 내려가면 다시 만들어지지 않도록 IFEXISTS
+        routing = new ReplicaRoutingDataSource(
+                primary,
+                Map.of("replica-1", new DriverManagerDataSource(replicaUrl + ";IFEXISTS=TRUE", "sa", "")),
+                Duration.ofMillis(300));
+        routing.afterPropertiesSet();
+        routing.bindTo(meterRegistry);
+
+        dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        routing.close();
+    }
+
+    @Test
+    @DisplayName("읽기 전용 트랜잭션은 replica, 쓰기 트랜잭션과 트랜잭션 밖은 primary")
+    void route() {
+        //given
+        routing.checkReplicas(TIMEOUT);
+
+        // expected
+        assertThat(read(readOnly)).isEqualTo("replica");
+        assertThat(read(readWrite)).isEqualTo("primary");
+        assertThat(node()).isEqualTo("primary");
+        assertThat(meterRegistry.counter("datasource.route", "target", "replica", "reason", "read").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("쓰기 커밋 후 잠시 동안은 쓴 클라이언트의 읽기만 primary 에서 한다")
+    void read_your_writes() throws InterruptedException {
+        //given
+        routing.checkReplicas(TIMEOUT);
+        ReadYourWrites clientA = new ReadYourWrites(0, null);
+        ReadYourWrites clientB = new ReadYourWrites(0, null);
+
+        //when - A 가 쓰고, 요청 밖(스케줄러 등)에서도 쓴다
+        ReadYourWrites.callAs(clientA, () ->
+                readWrite.execute(status -> jdbcTemplate.update("update node set name = 'primary'")));
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("update node set name = 'primary'"));
+
+        // then
+        assertThat(ReadYourWrites.callAs(clientA, () -> read(readOnly))).isEqualTo("primary");
+        assertThat(ReadYourWrites.callAs(clientB, () -> read(readOnly))).isEqualTo("replica");
+        assertThat(read(readOnly)).isEqualTo("replica");
+        Thread.sleep(400);
+        assertThat(ReadYourWrites.callAs(clientA, () -> read(readOnly))).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("쓴 요청은 쿠키를 받고, 그 쿠키를 들고 온 다음 요청만 primary 에서 읽는다")
+    void read_your_writes_cookie() throws Exception {
+        //given
+        routing.checkReplicas(TIMEOUT);
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMillis(300));
+
+        //when
+        MockHttpServletResponse written = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), written, (request, response) ->
+                readWrite.executeWithoutResult(status -> jdbcTemplate.update("update node set name = 'primary'")));
+        Cookie cookie = written.getCookie(ReadYourWrites.COOKIE);
+
+        // then
+        assertThat(cookie).isNotNull();
+        MockHttpServletRequest withCookie = new MockHttpServletRequest();
+        withCookie.setCookies(cookie);
+        assertThat(readThrough(filter, withCookie)).isEqualTo("primary");
+        assertThat(readThrough(filter, new MockHttpServletRequest())).isEqualTo("replica");
+        Thread.sleep(400);
+        assertThat(readThrough(filter, withCookie)).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("health check 에 실패한 replica 는 빼고 primary 에서 읽는다")
+    void replica_down() throws SQLException {
+        //given
+        routing.checkReplicas(TIMEOUT);
+        assertThat(routing.getHealthyReplicas()).containsExactly("replica-1");
+
+        //when
+        try (Connection connection = replicaAdmin.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("shutdown");
+        }
+        routing.checkReplicas(TIMEOUT);
+
+        // then
+        assertThat(routing.getHealthyReplicas()).isEmpty();
+        assertThat(read(readOnly)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("JPA open-in-view - 한 요청에서 읽기 전용 트랜잭션 뒤의 쓰기 트랜잭션은 primary 로 간다")
+    void jpa_read_then_write() {
+        //given
+        routing.checkReplicas(TIMEOUT);
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan(ReplicaRoutingDataSource.class.getPackageName());
+        HibernateJpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
+        vendorAdapter.setDatabase(Database.H2);
+        factoryBean.setJpaVendorAdapter(vendorAdapter);
+        Map<String, Object> jpaProperties = new HashMap<>();
+        new ReplicaDataSourceConfig().releaseConnectionAfterTransaction().customize(jpaProperties);
+        factoryBean.setJpaPropertyMap(jpaProperties);
+        factoryBean.afterPropertiesSet();
+
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        TransactionTemplate jpaReadOnly = new TransactionTemplate(transactionManager);
+        jpaReadOnly.setReadOnly(true);
+        TransactionTemplate jpaReadWrite = new TransactionTemplate(transactionManager);
+
+        //when - OpenEntityManagerInViewInterceptor 처럼 요청 동안 EntityManager 하나를 묶어 둔다
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        Object read;
+        try {
+            read = jpaReadOnly.execute(status ->
+                    entityManager.createNativeQuery("select name from node").getSingleResult());
+            jpaReadWrite.executeWithoutResult(status ->
+                    entityManager.createNativeQuery("update node set name = 'written'").executeUpdate());
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+            factoryBean.destroy();
+        }
+
+        // then
+        assertThat(read).isEqualTo("replica");
+        assertThat(new JdbcTemplate(primaryAdmin).queryForObject("select name from node", String.class)).isEqualTo("written");
+        assertThat(new JdbcTemplate(replicaAdmin).queryForObject("select name from node", String.class)).isEqualTo("replica");
+    }
+
+    private String readThrough(ReadYourWritesFilter filter, MockHttpServletRequest request) throws Exception {
+        AtomicReference<String> node = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> node.set(read(readOnly)));
+        return node.get();
+    }
+
+    private String read(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> node());
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private static DriverManagerDataSource node(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(20))");
+        jdbcTemplate.update("insert into node values (?)", name);
+        return dataSource;
+    }
+}
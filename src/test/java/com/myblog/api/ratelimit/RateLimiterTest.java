@@ -0,0 +1,78 @@
+package com.myblog.api.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("capacity 개까지 통과하고, 그 다음은 다음 토큰까지 남은 시간을 돌려준다")
+    void burst_then_refill() {
+        //given
+        RateLimiter limiter = new RateLimiter(3, Duration.ofSeconds(2), 100, clock::get);
+
+        //expected
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("1.2.3.4")).isZero();
+        }
+        assertThat(limiter.tryAcquire("1.2.3.4")).isEqualTo(TimeUnit.SECONDS.toNanos(2));
+        assertThat(limiter.tryAcquire("5.6.7.8")).isZero();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(limiter.tryAcquire("1.2.3.4")).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(limiter.tryAcquire("1.2.3.4")).isZero();
+        assertThat(limiter.tryAcquire("1.2.3.4")).isPositive();
+
+        // 오래 쉬어도 capacity 보다 많이 쌓이지 않는다
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(10));
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("1.2.3.4")).isZero();
+        }
+        assertThat(limiter.tryAcquire("1.2.3.4")).isPositive();
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 가져가도 capacity 개만 통과한다")
+    void concurrent() throws Exception {
+        //given
+        RateLimiter limiter = new RateLimiter(100, Duration.ofHours(1), 100, clock::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        //when
+        long passed;
+        try {
+            List<Callable<Long>> tasks = IntStream.range(0, 1_000)
+                    .mapToObj(i -> (Callable<Long>) () -> limiter.tryAcquire("key"))
+                    .collect(Collectors.toList());
+            List<Future<Long>> results = executor.invokeAll(tasks);
+            passed = 0;
+            for (Future<Long> result : results) {
+                if (result.get() == 0) {
+                    passed++;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        //then
+        assertThat(passed).isEqualTo(100L);
+    }
+}
@@ -0,0 +1,66 @@
+package com.myblog.api.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostSearchIndexTest {
+
+    private final PostSearchIndex index = new PostSearchIndex(null);
+
+    @Test
+    @DisplayName("한글은 음절 bi-gram 으로 자른다")
+    public void tokenize_hangul() {
+        assertThat(Tokenizer.tokenize("블로그를 Spring"))
+                .containsExactly("블로", "로그", "그를", "spring");
+    }
+
+    @Test
+    @DisplayName("조사가 붙은 단어도 검색된다")
+    public void search_hangul() {
+        //given
+        index.put(1L, "나의 블로그를 소개합니다", "안녕하세요");
+        index.put(2L, "오늘의 일기", "날씨가 좋다");
+
+        //when
+        SearchHits hits = index.search("블로그", 0, 10);
+
+        //then
+        assertThat(hits.getTotal()).isEqualTo(1L);
+        assertThat(hits.getIds()).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("제목에 나온 단어가 본문보다 높은 점수")
+    public void search_titleWeight() {
+        //given
+        index.put(1L, "일기", "오늘은 스프링 공부를 했다");
+        index.put(2L, "스프링 공부", "오늘의 일기");
+
+        //when
+        SearchHits hits = index.search("스프링", 0, 10);
+
+        //then
+        assertThat(hits.getIds()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("수정시 null 인 필드는 기존 색인을 유지하고, 삭제하면 검색되지 않는다")
+    public void update_and_remove() {
+        //given
+        index.put(1L, "자바 공부", "스프링 부트");
+
+        //when
+        index.put(1L, "코틀린 공부", null);
+
+        //then
+        assertThat(index.search("자바", 0, 10).getIds()).isEmpty();
+        assertThat(index.search("코틀린", 0, 10).getIds()).containsExactly(1L);
+        assertThat(index.search("스프링", 0, 10).getIds()).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.search("코틀린", 0, 10).getIds()).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+}
@@ -1,9 +1,12 @@
 package com.myblog.api.service;
 
+import com.myblog.api.cache.EmailFilter;
 import com.myblog.api.crypto.PasswordEncoder;
 import com.myblog.api.domain.User;
 import com.myblog.api.exception.AlreadyExistsEmailException;
 import com.myblog.api.exception.InvalidSignInInformation;
+import com.myblog.api.metrics.SqlStatementCounter;
+import com.myblog.api.repository.SessionRepository;
 import com.myblog.api.repository.UserRepository;
 import com.myblog.api.request.Login;
 import com.myblog.api.request.Signup;
@@ -14,6 +17,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -26,9 +31,15 @@ class AuthServiceTest {
     private AuthService authService;
     @Autowired
     private PasswordEncoder encoder;
+    @Autowired
+    private EmailFilter emailFilter;
+
+    @Autowired
+    private SessionRepository sessionRepository;
 
     @AfterEach
     public void clean() {
+        sessionRepository.deleteAll();
         userRepository.deleteAll();
     }
 
@@ -77,6 +88,51 @@ class AuthServiceTest {
                 .isInstanceOf(AlreadyExistsEmailException.class);
     }
 
+    @Test
+    @DisplayName("처음 보는 이메일은 조회 없이 insert 한번으로 가입한다")
+    public void signup_new_email_without_lookup() {
+        // given
+        emailFilter.warm();
+        Signup signup = Signup.builder()
+                .email("new-" + System.nanoTime() + "@gmail.com")
+                .password("1234")
+                .name("forest")
+                .build();
+
+        // when
+        List<String> statements = SqlStatementCounter.capture(() -> authService.signup(signup));
+
+        // then
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0)).startsWith("insert into users");
+        assertThat(emailFilter.mightContain(signup.getEmail())).isTrue();
+    }
+
+    @Test
+    @DisplayName("필터를 거치지 않고 저장된 이메일도 unique 인덱스로 중복 가입을 막는다")
+    public void signup_duplicate_by_unique_index() {
+        // given
+        emailFilter.warm();
+        String email = "direct-" + System.nanoTime() + "@gmail.com";
+        userRepository.save(User.builder()
+                .email(email)
+                .password("1234")
+                .name("abc")
+                .build());
+        assertThat(emailFilter.mightContain(email)).isFalse();
+
+        Signup signup = Signup.builder()
+                .email(email)
+                .password("1234")
+                .name("forest")
+                .build();
+
+        // expected
+        assertThatThrownBy(() -> authService.signup(signup))
+                .isInstanceOf(AlreadyExistsEmailException.class);
+        assertThat(emailFilter.mightContain(email)).isTrue();
+    }
+
     @Test
     @DisplayName("로그인 성공")
     public void login_success() {
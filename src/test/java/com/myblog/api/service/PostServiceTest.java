@@ -1,19 +1,38 @@
 package com.myblog.api.service;
 
+import com.myblog.api.cache.PostCounter;
+import com.myblog.api.cache.PostJson;
+import com.myblog.api.cache.PostJsonCache;
+import com.myblog.api.cache.PostResponseCache;
+import com.myblog.api.cache.PostViewCounter;
+import com.myblog.api.compression.CompressedContentConverter;
+import com.myblog.api.compression.ContentCompressionMigration;
+import com.myblog.api.config.AppConfig;
 import com.myblog.api.domain.Post;
+import com.myblog.api.domain.PostEditor;
 import com.myblog.api.exception.PostNotFound;
+import com.myblog.api.metrics.SqlStatementCounter;
 import com.myblog.api.repository.PostRepository;
 import com.myblog.api.request.PostCreate;
 import com.myblog.api.request.PostEdit;
 import com.myblog.api.request.PostSearch;
 import com.myblog.api.response.PostResponse;
+import com.myblog.api.response.PostSummaryResponse;
+import com.myblog.api.search.PostSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -30,6 +49,33 @@ class PostServiceTest {
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private PostResponseCache postResponseCache;
+
+    @Autowired
+    private PostJsonCache postJsonCache;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private PostCounter postCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ContentCompressionMigration contentCompressionMigration;
+
+    @Autowired
+    private PostViewCounter postViewCounter;
+
+    @Autowired
+    private AppConfig appConfig;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @BeforeEach
     public void clean() {
         postRepository.deleteAll();
@@ -84,6 +130,72 @@ class PostServiceTest {
         assertThat(response.getContent()).isEqualTo("내용입니다.");
     }
 
+    @Test
+    @DisplayName("글 1개 조회 - 두번째 조회는 캐시에서 응답")
+    public void single_search_post_cached() {
+        //given
+        Post post = Post.builder()
+                .title("제목입니다.")
+                .content("내용입니다.")
+                .build();
+        postRepository.save(post);
+
+        long hitCount = postResponseCache.stats().hitCount();
+
+        //when
+        PostResponse first = postService.get(post.getId());
+        PostResponse second = postService.get(post.getId());
+
+        //then - 조회수만 바꾼 사본을 돌려주므로 본문은 캐시된 값을 그대로 쓴다
+        assertThat(second.getContent()).isSameAs(first.getContent());
+        assertThat(second.getViews()).isEqualTo(first.getViews() + 1);
+        assertThat(postResponseCache.stats().hitCount()).isEqualTo(hitCount + 1);
+    }
+
+    @Test
+    @DisplayName("글 수정시 캐시 무효화")
+    public void edit_post_evictCache() {
+        //given
+        Post post = Post.builder()
+                .title("게시글 제목 1")
+                .content("게시글 내용 1")
+                .build();
+        postRepository.save(post);
+        postService.get(post.getId());
+
+        PostEdit postEdit = PostEdit.builder()
+                .title("수정 완료")
+                .content("게시글 내용 수정")
+                .build();
+
+        //when
+        postService.edit(post.getId(), postEdit);
+
+        //then
+        PostResponse response = postService.get(post.getId());
+        assertThat(response.getTitle()).isEqualTo("수정 완료");
+        assertThat(response.getContent()).isEqualTo("게시글 내용 수정");
+    }
+
+    @Test
+    @DisplayName("글 삭제시 캐시 무효화")
+    public void delete_evictCache() {
+        //given
+        Post post = Post.builder()
+                .title("게시글 제목 1")
+                .content("게시글 내용 1")
+                .build();
+        postRepository.save(post);
+        postService.get(post.getId());
+
+        //when
+        postService.delete(post.getId());
+
+        //then
+        assertThatThrownBy(() -> postService.get(post.getId()))
+                .isInstanceOf(PostNotFound.class);
+    }
+
     @Test
     @DisplayName("글 1개 조회 실패")
     public void single_search_post_FAIL() {
@@ -143,11 +255,12 @@ class PostServiceTest {
                 .build();
 
         //when
-        List<PostResponse> posts = postService.getList(postSearch);
+        List<PostSummaryResponse> posts = postService.getList(postSearch);
 
         //then
         assertThat(posts.size()).isEqualTo(5);
         assertThat(posts.get(0).getTitle()).isEqualTo("게시글 제목 19");
+        assertThat(posts.get(0).getExcerpt()).isEqualTo("게시글 내용 19");
 
 
         List<Post> result = postRepository.findAll();
@@ -157,6 +270,205 @@ class PostServiceTest {
         }
     }
 
+    @Test
+    @DisplayName("글 목록 조회시 본문은 앞부분만 응답")
+    public void search_post_getList_excerpt() {
+        //given
+        String content = "가".repeat(PostSummaryResponse.EXCERPT_LENGTH + 100);
+        postRepository.save(Post.builder()
+                .title("긴 글")
+                .content(content)
+                .build());
+
+        //when
+        List<PostSummaryResponse> posts = postService.getList(PostSearch.builder().build());
+
+        //then
+        assertThat(posts.get(0).getExcerpt()).isEqualTo(content.substring(0, PostSummaryResponse.EXCERPT_LENGTH));
+    }
+
+    @Test
+    @DisplayName("긴 본문은 압축해서 저장하고 조회시 원문으로 돌려준다")
+    public void compressed_content() {
+        //given
+        String content = "압축되는 본문입니다. ".repeat(1000);
+        Post post = postRepository.save(Post.builder()
+                .title("긴 글")
+                .content(content)
+                .build());
+
+        //when
+        String stored = storedBody(post.getId());
+        PostResponse response = postService.get(post.getId());
+
+        //then
+        assertThat(CompressedContentConverter.isCompressed(stored)).isTrue();
+        assertThat(stored.length()).isLessThan(content.length() / 10);
+        assertThat(response.getContent()).isEqualTo(content);
+    }
+
+    @Test
+    @DisplayName("압축 전에 저장된 글은 마이그레이션으로 압축하고 excerpt 를 채운다")
+    public void compress_legacy_content() {
+        //given
+        String content = "압축 전 본문입니다. ".repeat(1000);
+        Post post = postRepository.save(Post.builder()
+                .title("예전 글")
+                .content("임시")
+                .build());
+        jdbcTemplate.update("update post_content set body = ? where id = (select content_id from post where id = ?)", content, post.getId());
+        jdbcTemplate.update("update post set excerpt = null where id = ?", post.getId());
+
+        //when
+        int migrated = contentCompressionMigration.migrate();
+
+        //then
+        String stored = storedBody(post.getId());
+        Long version = jdbcTemplate.queryForObject("select version from post where id = ?", Long.class, post.getId());
+        // 본문 압축 1 + excerpt 채움 1
+        assertThat(migrated).isEqualTo(2);
+        assertThat(CompressedContentConverter.isCompressed(stored)).isTrue();
+        assertThat(version).isEqualTo(post.getVersion());
+        assertThat(postService.get(post.getId()).getContent()).isEqualTo(content);
+        assertThat(postService.getList(PostSearch.builder().build()).get(0).getExcerpt())
+                .isEqualTo(content.substring(0, PostSummaryResponse.EXCERPT_LENGTH));
+
+        // 한번 더 돌리면 바꿀 행이 없다
+        assertThat(contentCompressionMigration.migrate()).isEqualTo(0);
+    }
+
+    private String storedBody(Long postId) {
+        return jdbcTemplate.queryForObject(
+                "select c.body from post p join post_content c on c.id = p.content_id where p.id = ?",
+                String.class, postId);
+    }
+
+    @Test
+    @DisplayName("본문이 필요 없는 경로는 post_content 를 읽지 않는다")
+    public void content_is_lazy() {
+        //given
+        Post post = postRepository.save(Post.builder()
+                .title("게시글 제목")
+                .content("게시글 내용")
+                .build());
+
+        //when
+        List<String> list = SqlStatementCounter.capture(() -> postService.getList(PostSearch.builder().build()));
+        List<String> editTitle = SqlStatementCounter.capture(() ->
+                postService.edit(post.getId(), PostEdit.builder().title("제목만 수정").build()));
+        List<String> get = SqlStatementCounter.capture(() -> postService.get(post.getId()));
+        List<String> delete = SqlStatementCounter.capture(() -> postService.delete(post.getId()));
+
+        //then
+        assertThat(list).isNotEmpty().noneMatch(sql -> sql.contains("post_content"));
+        assertThat(editTitle).isNotEmpty().noneMatch(sql -> sql.contains("post_content"));
+        assertThat(get).hasSize(1)
+                .allMatch(sql -> sql.startsWith("select") && sql.contains("post_content") && sql.contains(".body"));
+        // 삭제는 post_content 의 id 로 지우기만 하고 본문 컬럼은 읽지 않는다
+        assertThat(delete).noneMatch(sql -> sql.startsWith("select") && sql.contains("post_content"));
+        assertThat(delete).anyMatch(sql -> sql.startsWith("delete from post_content"));
+        assertThat(postRepository.count()).isEqualTo(0);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from post_content", Long.class)).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("본문만 수정해도 revision 이 바뀐다")
+    public void edit_content_only_revision() {
+        //given
+        Post post = postRepository.save(Post.builder()
+                .title("게시글 제목")
+                .content("게시글 내용")
+                .build());
+        Long before = postService.getVersion(post.getId());
+
+        //when
+        postService.edit(post.getId(), PostEdit.builder().title("게시글 제목").content("게시글 내용 수정").build());
+
+        //then
+        assertThat(postService.getVersion(post.getId())).isGreaterThan(before);
+        assertThat(postService.get(post.getId()).getContent()).isEqualTo("게시글 내용 수정");
+    }
+
+    @Test
+    @DisplayName("글 목록 조회_커서 페이징")
+    public void search_post_getList_cursor() {
+        //given
+        List<Post> requestPosts = IntStream.range(0,20)
+                .mapToObj(i -> Post.builder()
+                        .title("게시글 제목 " + i)
+                        .content("게시글 내용 " + i)
+                        .build())
+                .collect(Collectors.toList());
+
+        postRepository.saveAll(requestPosts);
+
+        Long cursorId = requestPosts.get(15).getId();
+
+        PostSearch postSearch = PostSearch.builder()
+                .after(PostSearch.encodeCursor(cursorId))
+                .size(5)
+                .build();
+
+        //when
+        List<PostSummaryResponse> posts = postService.getList(postSearch);
+
+        //then
+        assertThat(posts.size()).isEqualTo(5);
+        assertThat(posts.get(0).getTitle()).isEqualTo("게시글 제목 14");
+        assertThat(posts.get(4).getTitle()).isEqualTo("게시글 제목 10");
+    }
+
+    @Test
+    @DisplayName("글 검색 - 작성/수정/삭제가 바로 색인에 반영된다")
+    public void search_post_q() {
+        //given
+        postService.write(PostCreate.builder()
+                .title("스프링 캐시 정리")
+                .content("카페인으로 조회 캐시를 만든다")
+                .build());
+        postService.write(PostCreate.builder()
+                .title("여행 일기")
+                .content("제주도 여행")
+                .build());
+
+        PostSearch postSearch = PostSearch.builder()
+                .q("카페인")
+                .build();
+
+        //when
+        List<PostSummaryResponse> posts = postService.getList(postSearch);
+
+        //then
+        assertThat(posts.size()).isEqualTo(1);
+        assertThat(posts.get(0).getTitle()).isEqualTo("스프링 캐시 정리");
+
+        // 수정/삭제
+        Long postId = posts.get(0).getId();
+        postService.edit(postId, PostEdit.builder().title("캐시 정리").content("레디스").build());
+        assertThat(postService.getList(postSearch)).isEmpty();
+
+        postService.delete(postId);
+        assertThat(postService.getList(PostSearch.builder().q("레디스").build())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("글 검색 - 색인 재생성시 테이블 전체를 다시 읽는다")
+    public void search_post_rebuild() {
+        //given
+        postRepository.save(Post.builder()
+                .title("색인에 없던 글")
+                .content("저장소에 직접 저장한 글")
+                .build());
+
+        //when
+        postSearchIndex.rebuild();
+
+        //then
+        List<PostSummaryResponse> posts = postService.getList(PostSearch.builder().q("저장소").build());
+        assertThat(posts.size()).isEqualTo(1);
+        assertThat(postSearchIndex.size()).isEqualTo(1);
+    }
+
     @Test
     @DisplayName("글 제목 수정")
     public void edit_post_title() {
@@ -268,6 +580,83 @@ class PostServiceTest {
         System.out.println("changedPost.getContent(): "+changedPost.getContent());
     }
 
+    @Test
+    @DisplayName("글 수정은 엔티티를 읽지 않고 version 조회와 update 문으로만 처리한다")
+    public void edit_single_statement() {
+        //given
+        Post post = postRepository.save(Post.builder()
+                .title("게시글 제목 1")
+                .content("게시글 내용 1")
+                .build());
+        String content = "수정한 긴 본문 ".repeat(1000);
+
+        //when
+        List<String> titleOnly = SqlStatementCounter.capture(() ->
+                postService.edit(post.getId(), PostEdit.builder().title("제목만 수정").build()));
+        List<String> withContent = SqlStatementCounter.capture(() ->
+                postService.edit(post.getId(), PostEdit.builder().content(content).build()));
+
+        //then
+        assertThat(titleOnly).hasSize(2);
+        assertThat(titleOnly.get(0)).startsWith("select").doesNotContain("post_content");
+        assertThat(titleOnly.get(1)).startsWith("update post ").doesNotContain("post_content");
+        assertThat(withContent).hasSize(3);
+        assertThat(withContent.subList(1, 3)).allMatch(sql -> sql.startsWith("update"));
+
+        PostResponse response = postService.get(post.getId());
+        assertThat(response.getTitle()).isEqualTo("제목만 수정");
+        assertThat(response.getContent()).isEqualTo(content);
+        assertThat(response.getVersion()).isEqualTo(3L);
+        assertThat(CompressedContentConverter.isCompressed(storedBody(post.getId()))).isTrue();
+    }
+
+    @Test
+    @DisplayName("글 수정 - 읽은 version 이 그새 바뀌었으면 반영하지 않는다 (낙관적 락)")
+    public void edit_stale_version() {
+        //given
+        Post post = postRepository.save(Post.builder()
+                .title("게시글 제목 1")
+                .content("게시글 내용 1")
+                .build());
+        Long version = postRepository.findVersion(post.getId()).orElseThrow();
+        transactionTemplate.executeWithoutResult(status ->
+                postRepository.update(post.getId(), version, PostEditor.builder().title("먼저 수정").build()));
+
+        //when
+        Long updated = transactionTemplate.execute(status -> postRepository.update(post.getId(), version,
+                PostEditor.builder().title("나중 수정").content("나중 본문").build()));
+
+        //then
+        assertThat(updated).isZero();
+        PostResponse response = postService.get(post.getId());
+        assertThat(response.getTitle()).isEqualTo("먼저 수정");
+        assertThat(response.getContent()).isEqualTo("게시글 내용 1");
+        assertThat(response.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("전체 글 수는 작성/삭제할 때 갱신되고 count(*) 를 다시 하지 않는다")
+    public void post_count() {
+        //given
+        postCounter.reconcile();
+        postService.write(PostCreate.builder().title("제목 1").content("내용 1").build());
+        postService.write(PostCreate.builder().title("제목 2").content("내용 2").build());
+        Long postId = postService.getList(PostSearch.builder().build()).get(0).getId();
+
+        //when
+        postService.delete(postId);
+        List<String> statements = SqlStatementCounter.capture(() -> postService.getPage(PostSearch.builder().build()));
+
+        //then
+        assertThat(postCounter.get()).isEqualTo(1L);
+        assertThat(statements).noneMatch(sql -> sql.contains("count("));
+
+        // repository 로 직접 지운 글은 reconcile 로 맞춘다
+        postRepository.deleteAll();
+        assertThat(postCounter.get()).isEqualTo(1L);
+        assertThat(postCounter.reconcile()).isEqualTo(0L);
+    }
+
     @Test
     @DisplayName("게시글 삭제")
     public void delete() {
@@ -286,6 +675,157 @@ class PostServiceTest {
         assertThat(postRepository.count()).isEqualTo(0);
     }
 
+    @Test
+    @DisplayName("조회수는 메모리에 모았다가 flush 때 한번에 반영한다")
+    public void view_count() {
+        //given
+        Post post = postRepository.save(Post.builder()
+                .title("게시글 제목 1")
+                .content("게시글 내용 1")
+                .build());
+
+        //when
+        List<String> statements = SqlStatementCounter.capture(() -> {
+            for (int i = 0; i < 3; i++) {
+                postService.get(post.getId());
+            }
+        });
+        postViewCounter.flush();
+
+        //then
+        assertThat(statements).noneMatch(sql -> sql.startsWith("update"));
+        assertThat(views(post.getId())).isEqualTo(3L);
+        assertThat(postService.get(post.getId()).getViews()).isEqualTo(4L);
+        assertThat(postService.getVersion(post.getId())).isEqualTo(post.getRevision());
+    }
+
+    @Test
+    @DisplayName("직렬화된 JSON 캐시 - 두번째 조회부터 쿼리 없음, 수정/삭제하면 무효화")
+    public void json_cache() {
+        //given
+        Post post = postRepository.save(Post.builder()
+                .title("게시글 제목 1")
+                .content("게시글 내용 1")
+                .build());
+        PostJson json = postService.getJson(post.getId());
+
+        //when
+        List<String> statements = SqlStatementCounter.capture(() -> postService.getJson(post.getId()));
+        long views = postService.view(json);
+        postViewCounter.flush();
+
+        //then
+        assertThat(statements).isEmpty();
+        assertThat(postService.getJson(post.getId())).isNotSameAs(json);
+        assertThat(postService.getJson(post.getId()).getViews()).isEqualTo(views).isEqualTo(1L);
+
+        postService.edit(post.getId(), PostEdit.builder().title("수정한 제목").build());
+        assertThat(postService.getJson(post.getId()).getVersion()).isEqualTo(json.getVersion() + 1);
+        assertThat(postService.getVersion(post.getId())).isEqualTo(json.getVersion() + 1);
+
+        postService.delete(post.getId());
+        assertThatThrownBy(() -> postService.getJson(post.getId()))
+                .isInstanceOf(PostNotFound.class);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 조회하는 동안 flush 해도 조회수가 빠지지 않는다")
+    public void view_count_concurrent() throws Exception {
+        //given
+        Post hot = postRepository.save(Post.builder().title("제목 1").content("내용 1").build());
+        Post cold = postRepository.save(Post.builder().title("제목 2").content("내용 2").build());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        //when
+        List<Future<?>> readers = IntStream.range(0, 8)
+                .mapToObj(i -> executor.submit(() -> {
+                    for (int n = 0; n < 2_000; n++) {
+                        postViewCounter.increment(n % 10 == 0 ? cold.getId() : hot.getId());
+                    }
+                }))
+                .collect(Collectors.toList());
+        while (readers.stream().anyMatch(reader -> !reader.isDone())) {
+            postViewCounter.flush();
+        }
+        for (Future<?> reader : readers) {
+            reader.get();
+        }
+        executor.shutdown();
+        postViewCounter.flush();
+
+        //then
+        assertThat(views(hot.getId())).isEqualTo(14_400L);
+        assertThat(views(cold.getId())).isEqualTo(1_600L);
+    }
+
+    @Test
+    @DisplayName("종료할 때 남은 조회수를 반영한다")
+    public void view_count_flush_on_shutdown() throws Exception {
+        //given
+        Post post = postRepository.save(Post.builder()
+                .title("게시글 제목 1")
+                .content("게시글 내용 1")
+                .build());
+        PostViewCounter counter = new PostViewCounter(jdbcTemplate, postResponseCache, postJsonCache, appConfig,
+                new SimpleMeterRegistry());
+        counter.increment(post.getId());
+        counter.increment(post.getId());
+
+        //when
+        counter.stop();
+
+        //then
+        assertThat(views(post.getId())).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("조회수 flush 중 update 뒤에 캐시에 올린 글에는 조회수를 다시 더하지 않는다")
+    public void view_count_flush_race() {
+        //given
+        Post post = postRepository.save(Post.builder()
+                .title("게시글 제목 1")
+                .content("게시글 내용 1")
+                .build());
+        postResponseCache.clear();
+        postJsonCache.clear();
+
+        // update 가 커밋된 직후, 캐시에 조회수를 더하기 전에 다른 요청이 글을 캐시에 올린다
+        AtomicReference<Runnable> afterUpdate = new AtomicReference<>(() -> { });
+        JdbcTemplate hooked = new JdbcTemplate(jdbcTemplate.getDataSource()) {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                int[] result = super.batchUpdate(sql, batchArgs);
+                afterUpdate.get().run();
+                return result;
+            }
+        };
+        PostViewCounter counter = new PostViewCounter(hooked, postResponseCache, postJsonCache, appConfig,
+                new SimpleMeterRegistry());
+        PostService service = new PostService(postRepository, postResponseCache, postJsonCache, postSearchIndex,
+                postCounter, counter, new SimpleMeterRegistry());
+        for (int i = 0; i < 3; i++) {
+            counter.increment(post.getId());
+        }
+        afterUpdate.set(() -> {
+            service.getJson(post.getId());
+            service.get(post.getId());
+        });
+
+        //when
+        counter.flush();
+        afterUpdate.set(() -> { });
+
+        //then
+        assertThat(views(post.getId())).isEqualTo(3L);
+        assertThat(service.getJson(post.getId()).getViews()).isEqualTo(3L);
+        // DB 3 + 아직 보내지 않은 조회 2 (flush 중 1, 지금 1)
+        assertThat(service.get(post.getId()).getViews()).isEqualTo(5L);
+    }
+
+    private long views(Long postId) {
+        return jdbcTemplate.queryForObject("select views from post where id = ?", Long.class, postId);
+    }
+
     @Test
     @DisplayName("게시글 삭제 - 존재하지 않는 글")
     public void delete_searchFail() {
@@ -0,0 +1,129 @@
+package com.myblog.api.session;
+
+import com.myblog.api.config.data.UserSession;
+import com.myblog.api.domain.Session;
+import com.myblog.api.domain.User;
+import com.myblog.api.metrics.SqlStatementCounter;
+import com.myblog.api.repository.SessionRepository;
+import com.myblog.api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "myblog.session-store.sweep-batch-size=2")
+class SessionStoreTest {
+
+    @Autowired
+    private SessionStore sessionStore;
+    @Autowired
+    private SessionRepository sessionRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void clean() {
+        sessionRepository.deleteAll();
+        userRepository.deleteAll();
+        user = userRepository.save(User.builder()
+                .name("forest")
+                .email("abc@gmail.com")
+                .password("1234")
+                .build());
+    }
+
+    @Test
+    @DisplayName("토큰 검증은 session 한 행만 읽고, 그 다음부터는 메모리에서 끝난다")
+    void find() {
+        //given
+        Session session = sessionRepository.save(Session.builder().user(user).build());
+
+        //when
+        List<String> first = SqlStatementCounter.capture(() -> sessionStore.find(session.getAccessToken()));
+        List<String> second = SqlStatementCounter.capture(() -> sessionStore.find(session.getAccessToken()));
+
+        //then
+        assertThat(first).hasSize(1);
+        assertThat(first.get(0)).contains("session").doesNotContain("users");
+        assertThat(second).isEmpty();
+        assertThat(sessionStore.find(session.getAccessToken()).map(s -> s.id)).contains(user.getId());
+        assertThat(sessionStore.find(session.getAccessToken() + "-o")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("만들면서 메모리에 올리고, 지우면 바로 인증할 수 없다")
+    void createAndDelete() {
+        //when
+        Session session = sessionStore.create(user.getId());
+
+        //then
+        List<String> statements = SqlStatementCounter.capture(() ->
+                assertThat(sessionStore.find(session.getAccessToken())).isPresent());
+        assertThat(statements).isEmpty();
+
+        sessionStore.delete(session.getAccessToken());
+        assertThat(sessionStore.find(session.getAccessToken())).isEmpty();
+        assertThat(sessionRepository.count()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("롤백된 세션은 메모리에도 남지 않는다")
+    void createRolledBack() {
+        //when
+        Session session = transactionTemplate.execute(status -> {
+            Session created = sessionStore.create(user.getId());
+            status.setRollbackOnly();
+            return created;
+        });
+
+        //then
+        assertThat(sessionStore.find(session.getAccessToken())).isEmpty();
+        assertThat(sessionRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("회원을 지우면 세션 행도 같이 지워진다")
+    void deleteUser() {
+        //given
+        sessionStore.create(user.getId());
+
+        //when
+        userRepository.deleteById(user.getId());
+
+        //then
+        assertThat(sessionRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("만료된 세션은 인증할 수 없고 sweep 으로 batch 단위로 지운다")
+    void expired() {
+        //given
+        List<Session> expired = IntStream.range(0, 5)
+                .mapToObj(i -> sessionRepository.save(Session.builder().user(user).ttl(Duration.ofSeconds(-1)).build()))
+                .collect(Collectors.toList());
+        Session active = sessionRepository.save(Session.builder().user(user).build());
+
+        //when
+        Optional<UserSession> found = sessionStore.find(expired.get(0).getAccessToken());
+        int swept = sessionStore.sweep();
+
+        //then
+        assertThat(found).isEmpty();
+        assertThat(swept).isEqualTo(5);
+        assertThat(sessionRepository.findAll()).extracting(Session::getId).containsExactly(active.getId());
+    }
+}